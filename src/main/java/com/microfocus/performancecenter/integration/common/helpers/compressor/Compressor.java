@@ -23,6 +23,8 @@
 
 package com.microfocus.performancecenter.integration.common.helpers.compressor;
 
+import com.microfocus.performancecenter.integration.common.helpers.utils.ContentDigest;
+
 import java.io.*;
 import java.nio.charset.Charset;
 import java.util.zip.ZipEntry;
@@ -74,6 +76,15 @@ public class Compressor implements ICompressor {
         }
     }
 
+    @Override
+    public String compressDirectoryToFileWithDigest(String directoryPath, String targetCompressFilePath, String compressComment) throws IOException {
+        ContentDigest.FolderDigest folderDigest = new ContentDigest.FolderDigest();
+        try (FileOutputStream fos = new FileOutputStream(targetCompressFilePath, false)) {
+            compress(fos, directoryPath, compressComment, folderDigest);
+        }
+        return folderDigest.getDigest();
+    }
+
     @Override
     public byte[] compressDirectoryToByteArray(String directoryPath) throws IOException {
         return compressDirectoryToByteArray(directoryPath, null);
@@ -87,12 +98,24 @@ public class Compressor implements ICompressor {
         }
     }
 
+    @Override
+    public long compressDirectoryToSize(String directoryPath) throws IOException {
+        CountingOutputStream cos = new CountingOutputStream();
+        compress(cos, directoryPath, null);
+        return cos.getCount();
+    }
+
     protected void compress(OutputStream target, String directoryPath, String compressComment) throws IOException {
+        compress(target, directoryPath, compressComment, null);
+    }
+
+    protected void compress(OutputStream target, String directoryPath, String compressComment,
+                            ContentDigest.FolderDigest folderDigest) throws IOException {
         File directoryFile = requireToBeDirectory(new File(directoryPath));
         try (BufferedOutputStream bos = new BufferedOutputStream(target);
              ZipOutputStream zos = new ZipOutputStream(bos, Charset.forName("UTF-8"))) {
 
-            putCompressEntriesForDirectory(zos, directoryFile, directoryFile.getAbsolutePath().length() + 1);
+            putCompressEntriesForDirectory(zos, directoryFile, directoryFile.getAbsolutePath().length() + 1, folderDigest);
             zos.closeEntry();
             if (compressComment != null) {
                 zos.setComment(compressComment);
@@ -101,6 +124,11 @@ public class Compressor implements ICompressor {
     }
 
     protected void putCompressEntriesForDirectory(ZipOutputStream target, File directory, int rootPathLength) throws IOException {
+        putCompressEntriesForDirectory(target, directory, rootPathLength, null);
+    }
+
+    protected void putCompressEntriesForDirectory(ZipOutputStream target, File directory, int rootPathLength,
+                                                  ContentDigest.FolderDigest folderDigest) throws IOException {
         for (File f : directory.listFiles()) {
             if (f.isDirectory()) {
                 /*
@@ -118,14 +146,19 @@ public class Compressor implements ICompressor {
                 /*
                  * Now recurse into the directory structure and continue.
                  */
-                putCompressEntriesForDirectory(target, f, rootPathLength);
+                putCompressEntriesForDirectory(target, f, rootPathLength, folderDigest);
             } else {
-                putCompressEntriesForFile(target, f, rootPathLength);
+                putCompressEntriesForFile(target, f, rootPathLength, folderDigest);
             }
         }
     }
 
     protected void putCompressEntriesForFile(ZipOutputStream target, File file, int rootPathLength) throws IOException {
+        putCompressEntriesForFile(target, file, rootPathLength, null);
+    }
+
+    protected void putCompressEntriesForFile(ZipOutputStream target, File file, int rootPathLength,
+                                             ContentDigest.FolderDigest folderDigest) throws IOException {
         String path = file.getAbsolutePath();
         /*
         * Note: According to the zip specifications https://pkware.cachefly.net/webdocs/casestudies/APPNOTE.TXT
@@ -133,13 +166,35 @@ public class Compressor implements ICompressor {
         */
         ZipEntry ze = new ZipEntry(path.substring(rootPathLength).replace("\\", "/"));
         target.putNextEntry(ze);
+        if (folderDigest != null)
+            folderDigest.startFile(path.substring(rootPathLength));
         try (FileInputStream fis = new FileInputStream(file);
              BufferedInputStream bis = new BufferedInputStream(fis)) {
             byte[] buffer = new byte[2048];
             int count;
             while ((count = bis.read(buffer)) != -1) {
                 target.write(buffer, 0, count);
+                if (folderDigest != null)
+                    folderDigest.update(buffer, 0, count);
             }
         }
     }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
 }
@@ -23,6 +23,8 @@
 
 package com.microfocus.performancecenter.integration.common.helpers.compressor;
 
+import com.microfocus.performancecenter.integration.common.helpers.utils.ContentDigest;
+
 import java.io.IOException;
 
 public interface ICompressor {
@@ -68,4 +70,25 @@ public interface ICompressor {
      */
     void compressDirectoryToFile(String directoryPath, String targetCompressFilePath, boolean overwrite, String compressComment) throws IOException;
 
+    /**
+     * Creates a compress archive from directory, stores it in file and computes the digest of the directory from the
+     * files read for the archive, so that the directory is read only once.
+     *
+     * @param directoryPath          path to source folder (which will be compressed)
+     * @param targetCompressFilePath path to target compressed archive, overwritten if it exists
+     * @param compressComment        compressed archive comment (will be displayed e.g. in WinRAR)
+     * @return the digest of the directory, as computed by {@link ContentDigest#ofFolder(java.nio.file.Path)}
+     * @throws IOException
+     */
+    String compressDirectoryToFileWithDigest(String directoryPath, String targetCompressFilePath, String compressComment) throws IOException;
+
+    /**
+     * Computes the size the compressed archive of a directory would have, without storing the archive.
+     *
+     * @param directoryPath path to source folder (which will be compressed)
+     * @return size in bytes of the compressed archive
+     * @throws IOException
+     */
+    long compressDirectoryToSize(String directoryPath) throws IOException;
+
 }
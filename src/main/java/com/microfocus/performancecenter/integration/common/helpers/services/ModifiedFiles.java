@@ -40,6 +40,8 @@ import java.nio.file.Paths;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
 
@@ -69,7 +71,16 @@ public class ModifiedFiles {
     public SortedSet<ModifiedFile> getModifiedFilesSinceLastSuccess(TaskListener listener, Run<?, ?> current, String remoteWorkspacePath) {
         initMessage(listener, "Beginning to analyze modifications made in GIT repository since last successful build", true);
 
-        Run<?, ?> lastSuccess = current.getPreviousSuccessfulBuild();
+        Run<?, ?> lastSuccess = ModifiedFiles.<Run<?, ?>>findBaseline(current.getPreviousSuccessfulBuild(),
+                build -> {
+                    UnsyncedChangesAction unsyncedChanges = build.getAction(UnsyncedChangesAction.class);
+                    if (unsyncedChanges == null)
+                        return false;
+                    log(listener, "Build %d did not synchronize all its changes (%s): its changes are included.", addDate,
+                            build.getNumber(), unsyncedChanges.getReason());
+                    return true;
+                },
+                Run::getPreviousSuccessfulBuild);
 
         if (lastSuccess == null) {
             log(listener, "No previously successful build was found. All scripts will be uploaded.", addDate);
@@ -85,6 +96,17 @@ public class ModifiedFiles {
         return getAllChangedFiles(Paths.get(remoteWorkspacePath), changeLogList);
     }
 
+    /**
+     * @return the last successful build that sent all its changes, or null if there is none.
+     */
+    @CheckForNull
+    static <B> B findBaseline(@CheckForNull B lastSuccess, Predicate<B> hasUnsyncedChanges, UnaryOperator<B> previousSuccess) {
+        B baseline = lastSuccess;
+        while (baseline != null && hasUnsyncedChanges.test(baseline))
+            baseline = previousSuccess.apply(baseline);
+        return baseline;
+    }
+
     private SortedSet<ModifiedFile> getAllChangedFiles(Path workspace, List<ChangeLogSet> changelog) {
         SortedSet<ModifiedFile> result = new TreeSet<>();
 
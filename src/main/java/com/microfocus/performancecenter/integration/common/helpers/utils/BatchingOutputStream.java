@@ -0,0 +1,119 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers what is written to it and forwards it to the target in large writes, once the buffer reaches its size
+ * or once the flush interval elapsed, whichever comes first. Used on agents, where each write to the build log is a
+ * remoting call to the controller.
+ */
+public class BatchingOutputStream extends OutputStream {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final OutputStream target;
+    private final int bufferSize;
+    private final ByteArrayOutputStream buffer;
+    private final ScheduledExecutorService flusher;
+    private boolean closed;
+
+    public BatchingOutputStream(OutputStream target) {
+        this(target, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public BatchingOutputStream(OutputStream target, int bufferSize, long flushIntervalMillis) {
+        this.target = target;
+        this.bufferSize = bufferSize;
+        this.buffer = new ByteArrayOutputStream(bufferSize);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LRE console batching");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flushBuffer();
+            } catch (IOException e) {
+                // the next write or the close reports it
+            }
+        }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        ensureOpen();
+        buffer.write(b);
+        if (buffer.size() >= bufferSize)
+            flushBuffer();
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        buffer.write(bytes, offset, length);
+        if (buffer.size() >= bufferSize)
+            flushBuffer();
+    }
+
+    /**
+     * Does not forward the buffer: PrintStream and the task listeners flush after every line, which would defeat the
+     * batching. The buffer is forwarded by size, by time and on close.
+     */
+    @Override
+    public void flush() {
+    }
+
+    private synchronized void flushBuffer() throws IOException {
+        if (buffer.size() == 0)
+            return;
+        try {
+            buffer.writeTo(target);
+            target.flush();
+        } finally {
+            buffer.reset();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        flusher.shutdownNow();
+        flushBuffer();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import com.microfocus.performancecenter.integration.configuresystem.ConfigureSystemSection;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stops sending requests to a LoadRunner Enterprise server after a run of consecutive transient failures, for a
+ * cooldown period. One breaker is shared by all the builds running in the same JVM against the same server.
+ * Once the cooldown is over, a single request is let through: its success closes the breaker, its failure opens it
+ * again.
+ */
+public class CircuitBreaker {
+
+    private static final ConcurrentMap<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    private final String server;
+    private int failureThreshold;
+    private long cooldownMillis;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean trialInProgress;
+
+    CircuitBreaker(String server, int failureThreshold, long cooldownMillis) {
+        this.server = server;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.cooldownMillis = Math.max(0, cooldownMillis);
+    }
+
+    public static CircuitBreaker forServer(String server, ConfigureSystemSection configureSystemSection) {
+        return forServer(server, configureSystemSection.getCircuitBreakerThreshold(),
+                configureSystemSection.getCircuitBreakerCooldownSeconds() * 1000L);
+    }
+
+    public static CircuitBreaker forServer(String server, int failureThreshold, long cooldownMillis) {
+        CircuitBreaker circuitBreaker = BREAKERS.computeIfAbsent(server.toLowerCase(),
+                key -> new CircuitBreaker(server, failureThreshold, cooldownMillis));
+        circuitBreaker.configure(failureThreshold, cooldownMillis);
+        return circuitBreaker;
+    }
+
+    private synchronized void configure(int failureThreshold, long cooldownMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.cooldownMillis = Math.max(0, cooldownMillis);
+    }
+
+    public synchronized boolean isOpen() {
+        return consecutiveFailures >= failureThreshold
+                && (System.currentTimeMillis() < openUntil || trialInProgress);
+    }
+
+    public synchronized void checkRequestAllowed() throws OpenException {
+        if (consecutiveFailures < failureThreshold)
+            return;
+        if (System.currentTimeMillis() < openUntil || trialInProgress)
+            throw new OpenException(String.format("Requests to '%s' are suspended after %d consecutive failures",
+                    server, consecutiveFailures));
+        trialInProgress = true;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInProgress = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInProgress = false;
+        if (consecutiveFailures >= failureThreshold)
+            openUntil = System.currentTimeMillis() + cooldownMillis;
+    }
+
+    public static class OpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public OpenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * SHA-256 digests of script folders and test files, used to recognize content that was already sent to
+ * LoadRunner Enterprise.
+ */
+public class ContentDigest {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContentDigest() {
+    }
+
+    // relative paths are part of the digest so that renaming or moving a file inside the folder changes it
+    public static String ofFolder(Path folder) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(folder)) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toCollection(ArrayList::new));
+        }
+        FolderDigest folderDigest = new FolderDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (Path file : files) {
+            folderDigest.startFile(folder.relativize(file).toString());
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                int read;
+                while ((read = inputStream.read(buffer)) != -1)
+                    folderDigest.update(buffer, 0, read);
+            }
+        }
+        return folderDigest.getDigest();
+    }
+
+    public static String ofFile(Path file) throws IOException {
+        return ofBytes(Files.readAllBytes(file));
+    }
+
+    public static String ofString(String content) {
+        return ofBytes(content == null ? new byte[0] : content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String ofBytes(byte[] content) {
+        return toHex(newMessageDigest().digest(content));
+    }
+
+    private static MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // SHA-256 is required to be supported by every Java platform
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes)
+            hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+
+    /**
+     * Digest of a folder fed file by file, in any order, while the files are read for another purpose: equal to
+     * {@link #ofFolder(Path)} for the same files.
+     */
+    public static final class FolderDigest {
+        private final Map<String, String> fileDigests = new TreeMap<>();
+        private String currentFile;
+        private MessageDigest currentDigest;
+
+        public void startFile(String relativePath) {
+            endFile();
+            currentFile = relativePath.replace('\\', '/');
+            currentDigest = newMessageDigest();
+        }
+
+        public void update(byte[] content, int offset, int length) {
+            currentDigest.update(content, offset, length);
+        }
+
+        public String getDigest() {
+            endFile();
+            MessageDigest messageDigest = newMessageDigest();
+            for (Map.Entry<String, String> fileDigest : fileDigests.entrySet()) {
+                messageDigest.update(fileDigest.getKey().getBytes(StandardCharsets.UTF_8));
+                messageDigest.update((byte) 0);
+                messageDigest.update(fileDigest.getValue().getBytes(StandardCharsets.UTF_8));
+                messageDigest.update((byte) 0);
+            }
+            return toHex(messageDigest.digest());
+        }
+
+        private void endFile() {
+            if (currentFile != null)
+                fileDigests.put(currentFile, toHex(currentDigest.digest()));
+            currentFile = null;
+            currentDigest = null;
+        }
+    }
+}
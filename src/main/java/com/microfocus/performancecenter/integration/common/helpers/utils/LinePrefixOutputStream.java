@@ -0,0 +1,88 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+
+/**
+ * Prefixes every line written to it and writes complete lines only, so that several threads can share the same
+ * build log without mixing their lines.
+ */
+public class LinePrefixOutputStream extends OutputStream {
+
+    private final PrintStream target;
+    private final byte[] prefix;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    public LinePrefixOutputStream(PrintStream target, String prefix, Charset charset) {
+        this.target = target;
+        this.prefix = prefix.getBytes(charset);
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        line.write(b);
+        if (b == '\n')
+            writeLine();
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) {
+        int start = offset;
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] == '\n') {
+                line.write(bytes, start, i + 1 - start);
+                writeLine();
+                start = i + 1;
+            }
+        }
+        line.write(bytes, start, offset + length - start);
+    }
+
+    private void writeLine() {
+        synchronized (target) {
+            target.write(prefix, 0, prefix.length);
+            target.write(line.toByteArray(), 0, line.size());
+            target.flush();
+        }
+        line.reset();
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        target.flush();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (line.size() > 0) {
+            line.write('\n');
+            writeLine();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Reads and writes the properties files in which the digests of the content sent to LoadRunner Enterprise are kept,
+ * with the ID of the item created from that content ("digest;id").
+ */
+public class PropertiesFileHelper {
+
+    private static final String SEPARATOR = ";";
+
+    private PropertiesFileHelper() {
+    }
+
+    /**
+     * @return the properties of the file, or no properties if the file does not exist or cannot be read: a missing
+     * entry only means that the content is sent again.
+     */
+    public static Properties load(File file) {
+        Properties properties = new Properties();
+        if (file == null || !file.isFile())
+            return properties;
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException ex) {
+            properties.clear();
+        }
+        return properties;
+    }
+
+    public static void store(File file, Properties properties, String comments) throws IOException {
+        File folder = file.getParentFile();
+        if (!folder.isDirectory() && !folder.mkdirs())
+            throw new IOException("Cannot create folder " + folder);
+        File temporaryFile = new File(folder, file.getName() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), StandardCharsets.UTF_8)) {
+            properties.store(writer, comments);
+        }
+        // replaced in one step so that an interrupted build never leaves a truncated file behind
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static String toDigestEntry(String digest, String id) {
+        return digest + SEPARATOR + id;
+    }
+
+    /**
+     * @return the ID of a "digest;id" entry, or null if there is no entry or it is for another digest.
+     */
+    public static String getIdOfDigestEntry(String entry, String digest) {
+        if (digest == null || entry == null || !entry.startsWith(digest + SEPARATOR))
+            return null;
+        return entry.substring(digest.length() + SEPARATOR.length());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+import com.microfocus.performancecenter.integration.configuresystem.ConfigureSystemSection;
+import hudson.model.TaskListener;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Serializable;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
+
+/**
+ * Retries idempotent LoadRunner Enterprise operations that failed for a transient reason (server error, timeout,
+ * lost connection), waiting an exponentially growing delay with jitter between attempts.
+ */
+public class RetryPolicy implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final long MAX_DELAY_MILLIS = 60_000L;
+    // a server error as LoadRunner Enterprise reports it: the HTTP status line, or the status code of the response
+    private static final Pattern TRANSIENT_ERROR = Pattern.compile(
+            "(?i).*(\\bHTTP/\\d(\\.\\d)?\\s+5\\d\\d\\b|\\bstatus code\\s*:?\\s*5\\d\\d\\b|internal server error|service unavailable|bad gateway|gateway time-?out).*",
+            Pattern.DOTALL);
+
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+
+    public RetryPolicy(int maxAttempts, long initialDelayMillis, long maxDelayMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialDelayMillis = Math.max(0, initialDelayMillis);
+        this.maxDelayMillis = Math.max(this.initialDelayMillis, maxDelayMillis);
+    }
+
+    public static RetryPolicy from(ConfigureSystemSection configureSystemSection) {
+        return new RetryPolicy(configureSystemSection.getRetryMaxAttempts(),
+                configureSystemSection.getRetryInitialDelaySeconds() * 1000L,
+                MAX_DELAY_MILLIS);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public static boolean isTransient(Exception ex) {
+        if (ex instanceof CircuitBreaker.OpenException)
+            return false;
+        if (ex instanceof IOException)
+            return isTransient((IOException) ex);
+        return ex instanceof PcException && ex.getMessage() != null && TRANSIENT_ERROR.matcher(ex.getMessage()).matches();
+    }
+
+    // a refused or lost connection, or a timeout; not a protocol error, a local file error or an interrupted build
+    private static boolean isTransient(IOException ex) {
+        if (ex instanceof SocketTimeoutException || ex instanceof ConnectTimeoutException)
+            return !Thread.currentThread().isInterrupted();
+        if (ex instanceof InterruptedIOException)
+            return false;
+        return ex instanceof SocketException || ex instanceof NoHttpResponseException;
+    }
+
+    /**
+     * @return the delay before the given retry (1 for the first retry): half of it is fixed and half random, so that
+     * several agents retrying against the same server do not hit it at the same moment.
+     */
+    public long getDelayMillis(int retry) {
+        long delay = initialDelayMillis << Math.min(Math.max(0, retry - 1), 20);
+        delay = Math.min(delay, maxDelayMillis);
+        return delay / 2 + (delay > 1 ? ThreadLocalRandom.current().nextLong(delay - delay / 2) : 0);
+    }
+
+    public <T> T execute(String description, CircuitBreaker circuitBreaker, TaskListener listener, RetryableOperation<T> operation)
+            throws IOException, PcException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            if (circuitBreaker != null)
+                circuitBreaker.checkRequestAllowed();
+            try {
+                T value = operation.run();
+                if (circuitBreaker != null)
+                    circuitBreaker.recordSuccess();
+                return value;
+            } catch (IOException | PcException ex) {
+                if (!isTransient(ex)) {
+                    // the server did answer: this is not a sign of an outage
+                    if (circuitBreaker != null)
+                        circuitBreaker.recordSuccess();
+                    throw ex;
+                }
+                if (circuitBreaker != null)
+                    circuitBreaker.recordFailure();
+                if (attempt >= maxAttempts || (circuitBreaker != null && circuitBreaker.isOpen()))
+                    throw ex;
+                long delay = getDelayMillis(attempt);
+                log(listener, "----- %s failed (attempt %d of %d): %s. Retrying in %d ms.", false,
+                        description, attempt, maxAttempts, ex.getMessage(), delay);
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface RetryableOperation<T> {
+        T run() throws IOException, PcException;
+    }
+}
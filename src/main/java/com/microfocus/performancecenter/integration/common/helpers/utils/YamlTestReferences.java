@@ -0,0 +1,178 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts from the content of a YAML test the parameters that matter before the test reaches LoadRunner Enterprise:
+ * the scripts it references (script_path, script_id) and the load it requires (vusers, lg_amount, lg_name).
+ * This is a line based reader of the documented test format, not a general YAML parser.
+ */
+public class YamlTestReferences {
+
+    private static final Pattern KEY_VALUE = Pattern.compile("^\\s*(?:-\\s+)?(script_path|script_id|vusers|lg_amount|lg_name)\\s*:\\s*(.*?)\\s*$");
+    private static final Pattern LIST_ITEM = Pattern.compile("^\\s*-\\s+(.*?)\\s*$");
+    private static final Pattern INDENTED_KEY = Pattern.compile("^\\s*[\\w-]+\\s*:.*$");
+
+    private final Set<String> scriptPaths = new LinkedHashSet<>();
+    private final Set<Integer> scriptIds = new LinkedHashSet<>();
+    private final Set<String> lgNames = new LinkedHashSet<>();
+    private int totalVusers;
+    private int lgAmount;
+
+    private YamlTestReferences() {
+    }
+
+    public static YamlTestReferences parse(String yamlContent) {
+        YamlTestReferences references = new YamlTestReferences();
+        if (yamlContent == null)
+            return references;
+        boolean inLgNameList = false;
+        for (String rawLine : yamlContent.split("\\r?\\n")) {
+            String line = stripComment(rawLine);
+            if (line.trim().isEmpty())
+                continue;
+            Matcher keyValue = KEY_VALUE.matcher(line);
+            if (keyValue.matches()) {
+                inLgNameList = references.add(keyValue.group(1), keyValue.group(2));
+                continue;
+            }
+            Matcher listItem = LIST_ITEM.matcher(line);
+            if (inLgNameList && listItem.matches() && !INDENTED_KEY.matcher(listItem.group(1)).matches()) {
+                references.lgNames.add(unquote(listItem.group(1)).toUpperCase(Locale.ROOT));
+                continue;
+            }
+            inLgNameList = false;
+        }
+        return references;
+    }
+
+    // returns true when the key opens a block list (lg_name followed by "- value" lines)
+    private boolean add(String key, String value) {
+        String unquoted = unquote(value);
+        switch (key) {
+            case "script_path":
+                if (!unquoted.isEmpty())
+                    scriptPaths.add(normalizeScriptPath(unquoted));
+                return false;
+            case "script_id":
+                Integer scriptId = toInteger(unquoted);
+                if (scriptId != null)
+                    scriptIds.add(scriptId);
+                return false;
+            case "vusers":
+                Integer vusers = toInteger(unquoted);
+                if (vusers != null)
+                    totalVusers += vusers;
+                return false;
+            case "lg_amount":
+                Integer amount = toInteger(unquoted);
+                if (amount != null)
+                    lgAmount = amount;
+                return false;
+            default: // lg_name
+                if (value.isEmpty())
+                    return true;
+                String list = value.startsWith("[") && value.endsWith("]") ? value.substring(1, value.length() - 1) : value;
+                for (String lgName : list.split(","))
+                    if (!unquote(lgName.trim()).isEmpty())
+                        lgNames.add(unquote(lgName.trim()).toUpperCase(Locale.ROOT));
+                return false;
+        }
+    }
+
+    /**
+     * Normalizes a script path the way it is compared to the scripts of the workspace: no leading 'Subject' folder,
+     * single backslashes as separators and lower case.
+     */
+    public static String normalizeScriptPath(String scriptPath) {
+        String normalized = scriptPath.replace('/', '\\').replaceAll("\\\\+", "\\\\");
+        normalized = normalized.replaceAll("^\\\\|\\\\$", "");
+        if (normalized.toLowerCase(Locale.ROOT).startsWith("subject\\"))
+            normalized = normalized.substring("subject\\".length());
+        return normalized.toLowerCase(Locale.ROOT);
+    }
+
+    private static String stripComment(String line) {
+        boolean inSingleQuotes = false;
+        boolean inDoubleQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\'' && !inDoubleQuotes)
+                inSingleQuotes = !inSingleQuotes;
+            else if (c == '"' && !inSingleQuotes)
+                inDoubleQuotes = !inDoubleQuotes;
+            else if (c == '#' && !inSingleQuotes && !inDoubleQuotes && (i == 0 || Character.isWhitespace(line.charAt(i - 1))))
+                return line.substring(0, i);
+        }
+        return line;
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && (trimmed.startsWith("\"") && trimmed.endsWith("\"") || trimmed.startsWith("'") && trimmed.endsWith("'")))
+            return trimmed.substring(1, trimmed.length() - 1);
+        return trimmed;
+    }
+
+    private static Integer toInteger(String value) {
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    public Set<String> getScriptPaths() {
+        return Collections.unmodifiableSet(scriptPaths);
+    }
+
+    public Set<Integer> getScriptIds() {
+        return Collections.unmodifiableSet(scriptIds);
+    }
+
+    public boolean hasScriptReferences() {
+        return !scriptPaths.isEmpty() || !scriptIds.isEmpty();
+    }
+
+    public int getTotalVusers() {
+        return totalVusers;
+    }
+
+    public int getLgAmount() {
+        return lgAmount;
+    }
+
+    public Set<String> getLgNames() {
+        return Collections.unmodifiableSet(lgNames);
+    }
+
+    // lg_amount load generators are shared by all groups, otherwise each distinct lg_name is one load generator
+    public int getRequiredLoadGenerators() {
+        return lgAmount > 0 ? lgAmount : lgNames.size();
+    }
+}
@@ -36,6 +36,14 @@ public class ConfigureSystemSection extends GlobalConfiguration implements Seria
 
     private final static long serialVersionUID = 1L;
     private boolean debug;
+    private int retryMaxAttempts = 3;
+    private int retryInitialDelaySeconds = 2;
+    private int circuitBreakerThreshold = 5;
+    private int circuitBreakerCooldownSeconds = 60;
+    private int entityCacheTimeToLiveSeconds = 60;
+    private int farmVuserLicenses;
+    private int farmLoadGenerators;
+    private int maxActiveRunsPerProject;
 
     public ConfigureSystemSection() {
         load();
@@ -53,6 +61,70 @@ public class ConfigureSystemSection extends GlobalConfiguration implements Seria
         this.debug = debug;
     }
 
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    public void setRetryMaxAttempts(int retryMaxAttempts) {
+        this.retryMaxAttempts = retryMaxAttempts;
+    }
+
+    public int getRetryInitialDelaySeconds() {
+        return retryInitialDelaySeconds;
+    }
+
+    public void setRetryInitialDelaySeconds(int retryInitialDelaySeconds) {
+        this.retryInitialDelaySeconds = retryInitialDelaySeconds;
+    }
+
+    public int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    public void setCircuitBreakerThreshold(int circuitBreakerThreshold) {
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+    }
+
+    public int getCircuitBreakerCooldownSeconds() {
+        return circuitBreakerCooldownSeconds;
+    }
+
+    public void setCircuitBreakerCooldownSeconds(int circuitBreakerCooldownSeconds) {
+        this.circuitBreakerCooldownSeconds = circuitBreakerCooldownSeconds;
+    }
+
+    public int getEntityCacheTimeToLiveSeconds() {
+        return entityCacheTimeToLiveSeconds;
+    }
+
+    public void setEntityCacheTimeToLiveSeconds(int entityCacheTimeToLiveSeconds) {
+        this.entityCacheTimeToLiveSeconds = entityCacheTimeToLiveSeconds;
+    }
+
+    public int getFarmVuserLicenses() {
+        return farmVuserLicenses;
+    }
+
+    public void setFarmVuserLicenses(int farmVuserLicenses) {
+        this.farmVuserLicenses = farmVuserLicenses;
+    }
+
+    public int getFarmLoadGenerators() {
+        return farmLoadGenerators;
+    }
+
+    public void setFarmLoadGenerators(int farmLoadGenerators) {
+        this.farmLoadGenerators = farmLoadGenerators;
+    }
+
+    public int getMaxActiveRunsPerProject() {
+        return maxActiveRunsPerProject;
+    }
+
+    public void setMaxActiveRunsPerProject(int maxActiveRunsPerProject) {
+        this.maxActiveRunsPerProject = maxActiveRunsPerProject;
+    }
+
     @Override
     public boolean configure(StaplerRequest req, JSONObject json) throws Descriptor.FormException {
         req.bindJSON(this, json);
@@ -35,19 +35,32 @@ import com.cloudbees.plugins.credentials.domains.URIRequirementBuilder;
 import com.cloudbees.plugins.credentials.matchers.IdMatcher;
 import com.microfocus.performancecenter.integration.common.helpers.configuration.ConfigurationService;
 import com.microfocus.performancecenter.integration.common.helpers.services.ModifiedFiles;
+import com.microfocus.performancecenter.integration.common.helpers.services.UnsyncedChangesAction;
 import com.microfocus.performancecenter.integration.common.helpers.utils.BuildParametersAndEnvironmentVariables;
+import com.microfocus.performancecenter.integration.common.helpers.utils.LinePrefixOutputStream;
 import com.microfocus.performancecenter.integration.common.helpers.utils.ModifiedFile;
+import com.microfocus.performancecenter.integration.common.helpers.utils.YamlTestReferences;
 import com.microfocus.performancecenter.integration.configuresystem.ConfigureSystemSection;
 import com.microfocus.performancecenter.integration.pcgitsync.helper.AbstractPcGitBuildStep;
 import com.microfocus.performancecenter.integration.pcgitsync.helper.AbstractPcGitBuildStepDescriptor;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.BackgroundSyncRegistry;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.ConsoleOutputMode;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.ScriptVerificationMode;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncChangeLists;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncJournal;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncLockRegistry;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncPlan;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncScope;
 import com.microfocus.performancecenter.integration.pcgitsync.helper.UploadScriptMode;
 import com.microfocus.performancecenter.integration.pcgitsync.helper.YesOrNo;
 import hudson.*;
 import hudson.model.*;
 import hudson.model.queue.Tasks;
 import hudson.security.ACL;
+import hudson.slaves.WorkspaceList;
 import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
+import hudson.util.StreamTaskListener;
 import jenkins.model.Jenkins;
 import jenkins.tasks.SimpleBuildStep;
 import org.apache.commons.lang.StringUtils;
@@ -61,7 +74,11 @@ import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -89,6 +106,13 @@ public class PcGitSyncBuilder extends AbstractPcGitBuildStep<PcGitSyncBuilder.De
     private final YesOrNo removeScriptFromPC;
     private final YesOrNo importTests;
     private final boolean authenticateWithToken;
+    private final ScriptVerificationMode scriptVerificationMode;
+    private final boolean dryRun;
+    private final String additionalTargets;
+    private final boolean reconcileOrphans;
+    private final int orphanDeletionThreshold;
+    private final ConsoleOutputMode consoleOutputMode;
+    private final String priorityTest;
     private String credentialsId;
     private String credentialsProxyId;
     private PcGitSyncModel pcGitSyncModel;
@@ -112,7 +136,14 @@ public class PcGitSyncBuilder extends AbstractPcGitBuildStep<PcGitSyncBuilder.De
             UploadScriptMode uploadScriptMode,
             YesOrNo removeScriptFromPC,
             YesOrNo importTests,
-            boolean authenticateWithToken) {
+            boolean authenticateWithToken,
+            ScriptVerificationMode scriptVerificationMode,
+            boolean dryRun,
+            String additionalTargets,
+            boolean reconcileOrphans,
+            int orphanDeletionThreshold,
+            ConsoleOutputMode consoleOutputMode,
+            String priorityTest) {
 
         this.description = description;
         this.pcServerName = pcServerName;
@@ -136,6 +167,13 @@ public class PcGitSyncBuilder extends AbstractPcGitBuildStep<PcGitSyncBuilder.De
         this.importTests = importTests;
         this.buildParameters = "";
         this.authenticateWithToken = authenticateWithToken;
+        this.scriptVerificationMode = scriptVerificationMode;
+        this.dryRun = dryRun;
+        this.additionalTargets = additionalTargets;
+        this.reconcileOrphans = reconcileOrphans;
+        this.orphanDeletionThreshold = orphanDeletionThreshold;
+        this.consoleOutputMode = consoleOutputMode;
+        this.priorityTest = priorityTest;
 
         pcGitSyncModel =
                 new PcGitSyncModel(
@@ -153,6 +191,13 @@ public class PcGitSyncBuilder extends AbstractPcGitBuildStep<PcGitSyncBuilder.De
                         this.removeScriptFromPC,
                         this.importTests,
                         this.authenticateWithToken,
+                        this.scriptVerificationMode,
+                        this.dryRun,
+                        this.additionalTargets,
+                        this.reconcileOrphans,
+                        this.orphanDeletionThreshold,
+                        this.consoleOutputMode,
+                        this.priorityTest,
                         this.buildParameters);
     }
 
@@ -289,6 +334,47 @@ public class PcGitSyncBuilder extends AbstractPcGitBuildStep<PcGitSyncBuilder.De
             log(listener, "Error: IllegalStateException '%s'", addDate, ex.getMessage());
         }
 
+        // a job saved outside of the form may have targets its check would have rejected: none of them is left out silently
+        List<String> invalidTargets = pcGitSyncModel.getInvalidTargets();
+        if (!invalidTargets.isEmpty()) {
+            for (String invalidTarget : invalidTargets)
+                log(listener, "Additional project not specified as 'server;domain;project': %s", addDate, invalidTarget);
+            build.setResult(Result.FAILURE);
+            return;
+        }
+
+        // a dry run does not send anything to LoadRunner Enterprise and does not need to wait for other syncs
+        List<String> targetNames = new ArrayList<>();
+        if (!pcGitSyncModel.isDryRun()) {
+            for (PcGitSyncModel target : pcGitSyncModel.getTargets())
+                targetNames.add(target.getTargetName());
+        }
+        SyncLockRegistry.SyncLock syncLock = SyncLockRegistry.register(targetNames, build.getParent().getFullName(), build.getNumber());
+        try {
+            syncLock.acquire(listener);
+            int supersedingBuild = syncLock.getSupersedingBuild();
+            if (supersedingBuild > 0) {
+                log(listener, "Superseded: build #%d of this job will synchronize the same project and include the changes of this build. Skipping the synchronization.",
+                        addDate, supersedingBuild);
+                build.setResult(Result.NOT_BUILT);
+                return;
+            }
+            // a sync continuing in the background releases the lock once it completes
+            if (sync(build, workspace, launcher, listener, syncLock))
+                syncLock = null;
+        } finally {
+            if (syncLock != null)
+                syncLock.close();
+        }
+    }
+
+    /**
+     * @return true if the sync continues in the background, in which case it closes the sync lock when it completes.
+     */
+    private boolean sync(Run<?, ?> build, FilePath workspace, Launcher launcher, TaskListener listener,
+                         SyncLockRegistry.SyncLock syncLock)
+            throws InterruptedException, IOException {
+        // computed once the lock is held, so that a sync completed in the meantime is taken into account
         Set<ModifiedFile> modifiedFiles = getDescriptor()
                 .getModifiedFiles()
                 .getModifiedFilesSinceLastSuccess(listener, build, workspace.getRemote());
@@ -299,18 +385,36 @@ public class PcGitSyncBuilder extends AbstractPcGitBuildStep<PcGitSyncBuilder.De
         EnvVars env = build.getEnvironment(listener);
         ConfigureSystemSection configureSystemSection = ConfigureSystemSection.get();
 
+        // with a test to run first, only its scripts are uploaded now and the rest of the sync continues in the background
+        boolean priorityTestFirst = !pcGitSyncModel.isDryRun() && StringUtils.isNotBlank(pcGitSyncModel.getPriorityTest(true));
+        Set<String> priorityScripts = priorityTestFirst ? getPriorityScripts(workspace, listener) : null;
+
         PcGitSyncClient pcGitSyncClient = new PcGitSyncClient(
                 listener,
                 configureSystemSection,
                 modifiedFiles,
                 pcGitSyncModel,
                 usernamePCPasswordCredentials,
-                usernamePCPasswordCredentialsForProxy
+                usernamePCPasswordCredentialsForProxy,
+                priorityTestFirst ? SyncScope.PRIORITY_SCRIPTS : SyncScope.ALL,
+                priorityScripts
         );
         Result result = Result.SUCCESS;
+        boolean continuesInBackground = false;
         try {
             Jenkins.getInstance().getInjector().injectMembers(pcGitSyncClient);
+            // the changes planned by a dry run are still to be sent by the next sync
+            if (pcGitSyncModel.isDryRun())
+                build.addAction(new UnsyncedChangesAction("dry run"));
             result = workspace.<Result>act(pcGitSyncClient);
+            if (pcGitSyncModel.isDryRun())
+                archiveSyncArtifact(build, workspace, launcher, listener, SyncPlan.PLAN_FILE);
+            if (pcGitSyncModel.getConsoleOutputMode() == ConsoleOutputMode.SUMMARY)
+                archiveSyncArtifact(build, workspace, launcher, listener, SyncChangeLists.CHANGES_FILE);
+            if (priorityTestFirst) {
+                startBackgroundSync(build, workspace, listener, configureSystemSection, modifiedFiles, priorityScripts, syncLock);
+                continuesInBackground = true;
+            }
         } catch (InterruptedException e) {
             build.setResult(Result.ABORTED);
             throw e;
@@ -321,6 +425,74 @@ public class PcGitSyncBuilder extends AbstractPcGitBuildStep<PcGitSyncBuilder.De
         }
         build.setResult(result);
         log(listener, "", addDate);
+        return continuesInBackground;
+    }
+
+    /**
+     * @return the relative paths of the scripts referenced by the YAML test to run, or null when they cannot be read
+     * ahead (test ID or file not found): all the scripts are then uploaded before the run.
+     */
+    private Set<String> getPriorityScripts(FilePath workspace, TaskListener listener) throws IOException, InterruptedException {
+        String priorityTest = pcGitSyncModel.getPriorityTest(true).trim();
+        if (priorityTest.matches("\\d+")) {
+            log(listener, "The scripts of test ID %s cannot be read ahead: all the scripts will be uploaded before the test runs.", addDate, priorityTest);
+            return null;
+        }
+        FilePath testFile = workspace.child(priorityTest);
+        if (!testFile.exists()) {
+            log(listener, "The test '%s' was not found in the workspace: all the scripts will be uploaded before the test runs.", addDate, priorityTest);
+            return null;
+        }
+        Set<String> priorityScripts = YamlTestReferences.parse(testFile.readToString()).getScriptPaths();
+        log(listener, "The test '%s' uses %d script(s) from Git: they will be uploaded before the rest of the synchronization.",
+                addDate, priorityTest, priorityScripts.size());
+        return priorityScripts;
+    }
+
+    private void startBackgroundSync(Run<?, ?> build, FilePath workspace, TaskListener listener,
+                                     ConfigureSystemSection configureSystemSection, Set<ModifiedFile> modifiedFiles,
+                                     Set<String> priorityScripts, SyncLockRegistry.SyncLock syncLock)
+            throws IOException, InterruptedException {
+        LinePrefixOutputStream output = new LinePrefixOutputStream(listener.getLogger(), "[background sync] ", StandardCharsets.UTF_8);
+        PcGitSyncClient remainderClient = new PcGitSyncClient(
+                new StreamTaskListener(output, StandardCharsets.UTF_8),
+                configureSystemSection,
+                modifiedFiles,
+                pcGitSyncModel,
+                usernamePCPasswordCredentials,
+                usernamePCPasswordCredentialsForProxy,
+                SyncScope.REMAINDER,
+                priorityScripts
+        );
+        BackgroundSyncRegistry.register(build, workspace.actAsync(remainderClient), () -> {
+            output.close();
+            syncLock.close();
+        });
+        // without a test run step, a freestyle build waits for it after its last build step, while its result can change
+        if (build instanceof AbstractBuild) {
+            ((AbstractBuild<?, ?>) build).getEnvironments().add(new Environment() {
+                @Override
+                public boolean tearDown(AbstractBuild build, BuildListener listener) throws InterruptedException {
+                    BackgroundSyncRegistry.await(build, listener);
+                    return true;
+                }
+            });
+        }
+        log(listener, "The rest of the synchronization continues in the background. The build waits for it at the end of the test run.", addDate);
+    }
+
+    private void archiveSyncArtifact(Run<?, ?> build, FilePath workspace, Launcher launcher, TaskListener listener,
+                                     String fileName) throws IOException, InterruptedException {
+        FilePath syncFolder = WorkspaceList.tempDir(workspace).child(SyncJournal.SYNC_FOLDER);
+        if (!syncFolder.child(fileName).exists())
+            return;
+        BuildListener buildListener = (listener instanceof BuildListener) ? (BuildListener) listener
+                : new StreamBuildListener(listener.getLogger(), Charset.defaultCharset());
+        build.pickArtifactManager().archive(syncFolder, launcher, buildListener,
+                Collections.singletonMap(fileName, fileName));
+        log(listener, "The file '%s' was archived as build artifact:", addDate, fileName);
+        listener.hyperlink("/" + build.getUrl() + "artifact/" + fileName, fileName);
+        listener.getLogger().println();
     }
 
     private void provideStepResultStatus(Result resultStatus, Run<?, ?> build) {
@@ -377,6 +549,34 @@ public class PcGitSyncBuilder extends AbstractPcGitBuildStep<PcGitSyncBuilder.De
         return getPcGitSyncModel().isAuthenticateWithToken();
     }
 
+    public ScriptVerificationMode getScriptVerificationMode() {
+        return getPcGitSyncModel().getScriptVerificationMode();
+    }
+
+    public boolean isDryRun() {
+        return getPcGitSyncModel().isDryRun();
+    }
+
+    public String getAdditionalTargets() {
+        return getPcGitSyncModel().getAdditionalTargets();
+    }
+
+    public boolean isReconcileOrphans() {
+        return getPcGitSyncModel().isReconcileOrphans();
+    }
+
+    public int getOrphanDeletionThreshold() {
+        return getPcGitSyncModel().getOrphanDeletionThreshold();
+    }
+
+    public ConsoleOutputMode getConsoleOutputMode() {
+        return getPcGitSyncModel().getConsoleOutputMode();
+    }
+
+    public String getPriorityTest() {
+        return getPcGitSyncModel().getPriorityTest();
+    }
+
     //-----------------------------------------------------------------------------------------
     // This indicates to Jenkins that this is an implementation of an extension
     // point
@@ -409,6 +609,16 @@ public class PcGitSyncBuilder extends AbstractPcGitBuildStep<PcGitSyncBuilder.De
             return validateString(value, "Domain");
         }
 
+        public FormValidation doCheckAdditionalTargets(@QueryParameter String value) {
+            if (value == null)
+                return FormValidation.ok();
+            for (String line : value.split("\\r?\\n")) {
+                if (PcGitSyncModel.isTargetLine(line) && PcGitSyncModel.parseTarget(line) == null)
+                    return FormValidation.error("Each target must be specified as 'server;domain;project': " + line.trim());
+            }
+            return FormValidation.ok();
+        }
+
 //        public FormValidation doCheckSubjectTestPlan(@QueryParameter String value) {
 //
 //            return validateString(value, "Test Plan folder");
@@ -556,6 +766,16 @@ public class PcGitSyncBuilder extends AbstractPcGitBuildStep<PcGitSyncBuilder.De
             return PcGitSyncModel.getYesOrNo();
         }
 
+        public List<ConsoleOutputMode> getConsoleOutputModes() {
+
+            return PcGitSyncModel.getConsoleOutputModes();
+        }
+
+        public List<ScriptVerificationMode> getScriptVerificationModes() {
+
+            return PcGitSyncModel.getScriptVerificationModes();
+        }
+
 
         public ModifiedFiles getModifiedFiles() {
             return this.modifiedFiles;
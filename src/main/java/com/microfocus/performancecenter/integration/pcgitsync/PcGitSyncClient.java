@@ -37,33 +37,61 @@ import com.microfocus.performancecenter.integration.common.helpers.services.Work
 import com.microfocus.performancecenter.integration.common.helpers.services.WorkspaceTests;
 import com.microfocus.performancecenter.integration.common.helpers.utils.AffectedFile;
 import com.microfocus.performancecenter.integration.common.helpers.utils.AffectedFolder;
+import com.microfocus.performancecenter.integration.common.helpers.utils.BatchingOutputStream;
+import com.microfocus.performancecenter.integration.common.helpers.utils.CircuitBreaker;
+import com.microfocus.performancecenter.integration.common.helpers.utils.ContentDigest;
 import com.microfocus.performancecenter.integration.common.helpers.utils.Helper;
+import com.microfocus.performancecenter.integration.common.helpers.utils.LinePrefixOutputStream;
 import com.microfocus.performancecenter.integration.common.helpers.utils.ModifiedFile;
+import com.microfocus.performancecenter.integration.common.helpers.utils.RetryPolicy;
+import com.microfocus.performancecenter.integration.common.helpers.utils.YamlTestReferences;
 import com.microfocus.performancecenter.integration.configuresystem.ConfigureSystemSection;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.ConsoleOutputMode;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.ScriptUploadTracker;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.ScriptVerificationMode;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncChangeLists;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncJournal;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncPlan;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncScope;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.TestPlanFolderTree;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.UploadTelemetry;
 import com.microfocus.performancecenter.integration.pcgitsync.helper.UploadScriptMode;
 import com.microfocus.performancecenter.integration.pcgitsync.helper.YesOrNo;
 import hudson.FilePath;
 import hudson.model.Result;
 import hudson.model.TaskListener;
 import hudson.remoting.VirtualChannel;
+import hudson.util.StreamTaskListener;
 import jenkins.security.Roles;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.jenkinsci.remoting.RoleChecker;
 
 import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.microfocus.performancecenter.integration.common.helpers.services.ModifiedFiles.initMessage;
 import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
 import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.logStackTrace;
 
 public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializable {
+    private static final int FOLDER_CREATION_THREADS = 4;
+    private static final int TEST_IMPORT_THREADS = 4;
+    private static final int ORPHAN_DELETION_THREADS = 4;
+
     private final TaskListener listener;
     private final ConfigureSystemSection configureSystemSection;
     @Nullable
@@ -71,17 +99,40 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
     private final PcGitSyncModel pcGitSyncModel;
     private final UsernamePasswordCredentials usernamePCPasswordCredentials;
     private final UsernamePasswordCredentials usernamePCPasswordCredentialsForProxy;
+    private final SyncScope syncScope;
+    // relative paths of the scripts used by the test to run, or null to treat all the scripts as such
+    @Nullable
+    private final Set<String> priorityScripts;
+    private transient SyncJournal syncJournal;
+    private transient RetryPolicy retryPolicy;
+    private transient CircuitBreaker circuitBreaker;
+    // archives compressed once and shared by all the projects synchronized from the same workspace scan
+    private transient Map<AffectedFolder, String> precompressedArchives;
+    // digests of the scripts, computed from the files read to compress them and shared along with the archives
+    private transient Map<AffectedFolder, String> scriptDigests = new ConcurrentHashMap<>();
+    private transient SyncChangeLists syncChangeLists;
 
     public PcGitSyncClient(TaskListener listener, ConfigureSystemSection configureSystemSection,
                            @Nullable Set<ModifiedFile> modifiedFiles, PcGitSyncModel pcGitSyncModel,
                            UsernamePasswordCredentials usernamePCPasswordCredentials,
                            UsernamePasswordCredentials usernamePCPasswordCredentialsForProxy) {
+        this(listener, configureSystemSection, modifiedFiles, pcGitSyncModel, usernamePCPasswordCredentials,
+                usernamePCPasswordCredentialsForProxy, SyncScope.ALL, null);
+    }
+
+    public PcGitSyncClient(TaskListener listener, ConfigureSystemSection configureSystemSection,
+                           @Nullable Set<ModifiedFile> modifiedFiles, PcGitSyncModel pcGitSyncModel,
+                           UsernamePasswordCredentials usernamePCPasswordCredentials,
+                           UsernamePasswordCredentials usernamePCPasswordCredentialsForProxy,
+                           SyncScope syncScope, @Nullable Set<String> priorityScripts) {
         this.listener = listener;
         this.configureSystemSection = configureSystemSection;
         this.modifiedFiles = modifiedFiles;
         this.pcGitSyncModel = pcGitSyncModel;
         this.usernamePCPasswordCredentials = usernamePCPasswordCredentials;
         this.usernamePCPasswordCredentialsForProxy = usernamePCPasswordCredentialsForProxy;
+        this.syncScope = syncScope;
+        this.priorityScripts = priorityScripts == null ? null : new HashSet<>(priorityScripts);
     }
 
     @Override
@@ -91,7 +142,13 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
 
     @Override
     public Result invoke(File workspace, VirtualChannel channel) throws IOException, InterruptedException {
-        return start(workspace);
+        // on an agent every write to the listener is a call to the controller: the console is sent in batches instead
+        try (BatchingOutputStream output = new BatchingOutputStream(listener.getLogger())) {
+            PcGitSyncClient batchedClient = new PcGitSyncClient(new StreamTaskListener(output, StandardCharsets.UTF_8),
+                    configureSystemSection, modifiedFiles, pcGitSyncModel, usernamePCPasswordCredentials,
+                    usernamePCPasswordCredentialsForProxy, syncScope, priorityScripts);
+            return batchedClient.start(workspace);
+        }
     }
 
     //main function
@@ -101,18 +158,14 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
         boolean deleteScripts = (this.pcGitSyncModel.getRemoveScriptFromPC() == YesOrNo.YES) ? true : false;
 
         Result result = Result.SUCCESS;
-        PcRestProxy restProxy = defineRestProxy();
-        if (restProxy == null)
-            return Result.FAILURE;
-
-        boolean loggedIn = false;
-
-        boolean allowFolderCreation = false;
 
         try {
             if (!validateParameters(listener)) {
                 return Result.FAILURE;
             }
+            // the lists were already logged by the priority part of the sync
+            if (pcGitSyncModel.getConsoleOutputMode() == ConsoleOutputMode.SUMMARY && syncScope != SyncScope.REMAINDER)
+                syncChangeLists = SyncChangeLists.open(workspace);
 
             Set<AffectedFolder> scriptsForDelete = null;
             Set<AffectedFolder> scriptsForUpload;
@@ -148,6 +201,10 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
                         testsToCreateOrUpdate = wst.getAllTestsToCreateOrUpdate(affectedFiles, workspace.toPath(), configureSystemSection.getDebug());
                         logSetOfAffectedTests("List of tests added to Git that will be uploaded to LoadRunner Enterprise:", testsToCreateOrUpdate);
                     }
+                } else if (pcGitSyncModel.isReconcileOrphans() && syncScope != SyncScope.PRIORITY_SCRIPTS) {
+                    // a quiet repository is when the scripts deleted before the step was used are left to reconcile
+                    log(listener, "No files were modified since the last successful build: only the scripts missing from the Git repository are reconciled.", true);
+                    scriptsForUpload = Collections.emptySet();
                 } else {
                     log(listener, "No files were modified since the last successful build", true);
                     return result;
@@ -155,8 +212,79 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
             }
             log(listener, "", true);
 
+            // the reconciliation compares the remote catalog with every script of the workspace, not only the changed ones
+            Set<AffectedFolder> localScripts = null;
+            if (pcGitSyncModel.isReconcileOrphans() && syncScope != SyncScope.PRIORITY_SCRIPTS)
+                localScripts = (modifiedFiles == null) ? scriptsForUpload : wss.getAllScriptsForUpload(workspace.toPath());
+
+            if (pcGitSyncModel.isDryRun()) {
+                return planSync(workspace, scriptsForDelete, scriptsForUpload, testsToCreateOrUpdate, localScripts);
+            }
+
+            if (syncScope == SyncScope.PRIORITY_SCRIPTS) {
+                scriptsForUpload = getScriptsInScope(scriptsForUpload);
+                scriptsForDelete = null;
+                testsToCreateOrUpdate = null;
+                log(listener, "Uploading first the %d script(s) used by the test to run.", true, scriptsForUpload.size());
+            } else if (syncScope == SyncScope.REMAINDER) {
+                scriptsForUpload = getScriptsInScope(scriptsForUpload);
+            }
+
+            List<PcGitSyncModel> targets = pcGitSyncModel.getTargets();
+            if (targets.size() == 1)
+                return syncTarget(workspace, scriptsForDelete, scriptsForUpload, testsToCreateOrUpdate, localScripts);
+            return syncTargets(workspace, targets, scriptsForDelete, scriptsForUpload, testsToCreateOrUpdate, localScripts);
+        } catch (InterruptedException ex) {
+            log(listener, "Job interruption exception: %s.", true, ex.getMessage());
+            logStackTrace(listener, configureSystemSection, ex);
+            result = result.combine(Result.FAILURE);
+        } catch (Exception ex) {
+            log(listener, "General exception: %s.", true, ex.getMessage());
+            logStackTrace(listener, configureSystemSection, ex);
+            result = result.combine(Result.FAILURE);
+        } finally {
+            closeSyncChangeLists();
+        }
+
+        return result;
+    }
+
+    private Set<AffectedFolder> getScriptsInScope(Set<AffectedFolder> scriptsForUpload) {
+        Set<AffectedFolder> scriptsInScope = new TreeSet<>();
+        for (AffectedFolder script : scriptsForUpload) {
+            boolean priority = priorityScripts == null || priorityScripts.contains(
+                    YamlTestReferences.normalizeScriptPath(script.getRelativePath().toString().replace(File.separatorChar, '\\')));
+            if (priority == (syncScope == SyncScope.PRIORITY_SCRIPTS))
+                scriptsInScope.add(script);
+        }
+        return scriptsInScope;
+    }
+
+    /**
+     * Synchronizes the scripts and tests found in the workspace with the LoadRunner Enterprise project of the model.
+     */
+    private Result syncTarget(File workspace, Set<AffectedFolder> scriptsForDelete, Set<AffectedFolder> scriptsForUpload,
+                              Set<AffectedFile> testsToCreateOrUpdate, @Nullable Set<AffectedFolder> localScripts) {
+        Result result = Result.SUCCESS;
+        PcRestProxy restProxy = defineRestProxy();
+        if (restProxy == null)
+            return Result.FAILURE;
+
+        boolean loggedIn = false;
+
+        boolean allowFolderCreation = false;
+
+        try {
             initMessage(listener, "Beginning to sync between GIT repository and LoadRunner Enterprise", true);
 
+            retryPolicy = RetryPolicy.from(configureSystemSection);
+            circuitBreaker = CircuitBreaker.forServer(pcGitSyncModel.getPcServerName(true), configureSystemSection);
+            syncJournal = SyncJournal.open(workspace, getSyncFingerprint());
+            if (syncJournal.getResumedEntries() > 0) {
+                log(listener, "Resuming a synchronization that did not complete: %d item(s) already sent will be skipped if unchanged.",
+                        true, syncJournal.getResumedEntries());
+            }
+
             loggedIn = login(restProxy);
             if (!loggedIn) {
                 log(listener, "Login failed.", true);
@@ -170,15 +298,39 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
             );
             log(listener, "", false);
 
-            allowFolderCreation = isAllowFolderCreation(restProxy);
+            TestPlanFolderTree testPlanFolderTree = getTestPlanFolderTree(restProxy);
+            allowFolderCreation = testPlanFolderTree != null;
+            if (allowFolderCreation) {
+                Thread.sleep(50);
+                createMissingTestPlanFolders(restProxy, testPlanFolderTree, scriptsForUpload, testsToCreateOrUpdate);
+            }
             Thread.sleep(50);
             result = result.combine(deleteScriptsFromPerformanceCenter(scriptsForDelete, restProxy, allowFolderCreation));
-            Thread.sleep(50);
-            result = result.combine(uploadScriptsToPerformanceCenter(scriptsForUpload, restProxy, allowFolderCreation));
-            if (pcGitSyncModel.getImportTests() != null && pcGitSyncModel.getImportTests().equals(YesOrNo.YES)) {
+            // tests are created in the background as soon as the scripts they reference are uploaded
+            // the scripts of the workspace not sent by this sync were sent before, to the paths the tests reference
+            // only when the Test Plan folders follow the Git paths
+            ScriptUploadTracker scriptUploadTracker = new ScriptUploadTracker(scriptsForUpload,
+                    allowFolderCreation && modifiedFiles != null ? localScripts : null);
+            boolean importTests = pcGitSyncModel.getImportTests() != null && pcGitSyncModel.getImportTests().equals(YesOrNo.YES);
+            try (TestImports testImports = importTests ? startTestImports(testsToCreateOrUpdate, restProxy, allowFolderCreation, scriptUploadTracker) : null) {
+                try {
+                    Thread.sleep(50);
+                    result = result.combine(uploadScriptsToPerformanceCenter(scriptsForUpload, restProxy, allowFolderCreation, scriptUploadTracker));
+                } finally {
+                    scriptUploadTracker.allUploadsDone();
+                }
+                if (testImports != null) {
+                    Thread.sleep(50);
+                    result = result.combine(createOrUpdateTestsInPerformanceCenter(testImports));
+                }
+            }
+            if (localScripts != null) {
                 Thread.sleep(50);
-                result = result.combine(createOrUpdateTestsInPerformanceCenter(testsToCreateOrUpdate, restProxy, allowFolderCreation));
+                result = result.combine(deleteOrphanScriptsFromPerformanceCenter(workspace, localScripts, restProxy, allowFolderCreation));
             }
+            // the journal of the priority scripts is still needed by the rest of the sync, which uses the same one
+            if (result == Result.SUCCESS && syncScope != SyncScope.PRIORITY_SCRIPTS)
+                syncJournal.complete();
         } catch (PcException ex) {
             log(listener, "Error PcException: %s.", true, ex.getMessage());
             logStackTrace(listener, configureSystemSection, ex);
@@ -198,6 +350,142 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
         return result;
     }
 
+    /**
+     * Synchronizes the same scan with several LoadRunner Enterprise projects in parallel. The scripts are compressed
+     * once; each project then gets its own client, session, journal and console prefix.
+     */
+    private Result syncTargets(File workspace, List<PcGitSyncModel> targets, Set<AffectedFolder> scriptsForDelete,
+                               Set<AffectedFolder> scriptsForUpload, Set<AffectedFile> testsToCreateOrUpdate,
+                               @Nullable Set<AffectedFolder> localScripts)
+            throws IOException, InterruptedException {
+        initMessage(listener, String.format("Beginning to sync between GIT repository and %d LoadRunner Enterprise projects", targets.size()), true);
+        Map<AffectedFolder, String> archives = compressScripts(scriptsForUpload);
+
+        ExecutorService executor = Executors.newFixedThreadPool(targets.size());
+        Map<String, Future<Result>> futures = new LinkedHashMap<>();
+        Map<String, Result> targetResults = new LinkedHashMap<>();
+        List<LinePrefixOutputStream> outputs = new ArrayList<>();
+        try {
+            for (PcGitSyncModel target : targets) {
+                String targetName = target.getTargetName();
+                LinePrefixOutputStream output = new LinePrefixOutputStream(listener.getLogger(), "[" + targetName + "] ", StandardCharsets.UTF_8);
+                outputs.add(output);
+                PcGitSyncClient targetClient = new PcGitSyncClient(new StreamTaskListener(output, StandardCharsets.UTF_8),
+                        configureSystemSection, modifiedFiles, target, usernamePCPasswordCredentials, usernamePCPasswordCredentialsForProxy,
+                        syncScope, priorityScripts);
+                targetClient.precompressedArchives = archives;
+                targetClient.scriptDigests = scriptDigests;
+                futures.put(targetName, executor.submit(() -> targetClient.validateParameters(targetClient.listener)
+                        ? targetClient.syncTarget(workspace, scriptsForDelete, scriptsForUpload, testsToCreateOrUpdate, localScripts)
+                        : Result.FAILURE));
+            }
+            for (Map.Entry<String, Future<Result>> future : futures.entrySet()) {
+                Result targetResult;
+                try {
+                    targetResult = future.getValue().get();
+                } catch (ExecutionException ex) {
+                    log(listener, "Synchronization with '%s' failed: %s.", true, future.getKey(), ex.getCause().getMessage());
+                    logStackTrace(listener, configureSystemSection, ex.getCause());
+                    targetResult = Result.FAILURE;
+                }
+                targetResults.put(future.getKey(), targetResult);
+            }
+        } finally {
+            executor.shutdownNow();
+            for (LinePrefixOutputStream output : outputs)
+                output.close();
+        }
+
+        Result result = Result.SUCCESS;
+        log(listener, "", false);
+        for (Map.Entry<String, Result> targetResult : targetResults.entrySet()) {
+            log(listener, "%s Synchronization with '%s': %s.", false,
+                    targetResult.getValue() == Result.SUCCESS ? "+++++" : "-----", targetResult.getKey(), targetResult.getValue());
+            result = result.combine(targetResult.getValue());
+        }
+        return result;
+    }
+
+    // compresses every script once, next to the script folder, for all the targets to upload
+    private Map<AffectedFolder, String> compressScripts(Set<AffectedFolder> scriptsForUpload) throws InterruptedException {
+        Map<AffectedFolder, String> archives = new HashMap<>();
+        if (scriptsForUpload == null)
+            return archives;
+        ICompressor compressor = new Compressor();
+        for (AffectedFolder script : scriptsForUpload) {
+            Thread.sleep(50);
+            try {
+                archives.put(script, compressScript(compressor, script));
+            } catch (IOException ex) {
+                // left to each target, which reports the failure of the script in its own output
+                log(listener, "Failed to compress script '%s': %s.", true, script.getRelativePath().toString(), ex.getMessage());
+            }
+        }
+        return archives;
+    }
+
+    private String compressScript(ICompressor compressor, AffectedFolder script) throws IOException {
+        if (precompressedArchives != null && precompressedArchives.containsKey(script))
+            return precompressedArchives.get(script);
+        String scriptFullPath = script.getFullPath().toString();
+        String archive = scriptFullPath + ".zip";
+        scriptDigests.put(script, compressor.compressDirectoryToFileWithDigest(scriptFullPath, archive, "JENKINS PLUGIN"));
+        return archive;
+    }
+
+    // dry run: computes what would be sent, assuming LoadRunner Enterprise 12.60 or above (folders created from Git paths)
+    private Result planSync(File workspace, Set<AffectedFolder> scriptsForDelete, Set<AffectedFolder> scriptsForUpload,
+                            Set<AffectedFile> testsToCreateOrUpdate, @Nullable Set<AffectedFolder> localScripts)
+            throws IOException, InterruptedException {
+        initMessage(listener, "Planning the sync between GIT repository and LoadRunner Enterprise (dry run)", true);
+        SyncPlan syncPlan = new SyncPlan(
+                pcGitSyncModel.getPcServerName(true),
+                pcGitSyncModel.getAlmDomain(true),
+                pcGitSyncModel.getAlmProject(true),
+                pcGitSyncModel.getSubjectTestPlan(true),
+                pcGitSyncModel.getUploadScriptMode() == null ? "" : pcGitSyncModel.getUploadScriptMode().getValue(),
+                modifiedFiles == null);
+
+        syncPlan.addFoldersRequired(new TestPlanFolderTree().getMissingFoldersByDepth(getRequiredFolders(scriptsForUpload, testsToCreateOrUpdate)));
+        ICompressor compressor = new Compressor();
+        if (scriptsForUpload != null) {
+            for (AffectedFolder script : scriptsForUpload) {
+                Thread.sleep(50);
+                syncPlan.addScriptToUpload(script.getRelativePath().toString(), script.getSubjectPath(),
+                        compressor.compressDirectoryToSize(script.getFullPath().toString()));
+            }
+        }
+        if (scriptsForDelete != null) {
+            for (AffectedFolder script : scriptsForDelete)
+                syncPlan.addScriptToDelete(script.getRelativePath().toString(), script.getSubjectPath());
+        }
+        if (testsToCreateOrUpdate != null) {
+            for (AffectedFile test : testsToCreateOrUpdate)
+                syncPlan.addTestToCreateOrUpdate(test.getRelativePath().toString(),
+                        TestPlanFolderTree.SUBJECT_ROOT + "\\" + test.getSubjectPath(), test.getTestName());
+        }
+
+        // the orphans themselves are only known from the catalog of LoadRunner Enterprise, which a dry run does not read
+        if (localScripts != null)
+            syncPlan.setOrphanReconciliation(pcGitSyncModel.getSubjectTestPlan(true),
+                    pcGitSyncModel.getOrphanDeletionThreshold(), localScripts.size());
+
+        syncPlan.logSummary(listener);
+        File planFile = syncPlan.writeTo(SyncJournal.getSyncFolder(workspace));
+        log(listener, "The synchronization plan was written to '%s'.", true, planFile.getAbsolutePath());
+        return Result.SUCCESS;
+    }
+
+    private String getSyncFingerprint() {
+        return String.format("%s://%s/%s/%s|%s|%s",
+                pcGitSyncModel.getProtocol(),
+                pcGitSyncModel.getPcServerName(true),
+                pcGitSyncModel.getAlmDomain(true),
+                pcGitSyncModel.getAlmProject(true),
+                pcGitSyncModel.getSubjectTestPlan(true),
+                pcGitSyncModel.getUploadScriptMode()).toLowerCase();
+    }
+
     private PcRestProxy defineRestProxy() {
 
         String proxyOutUser = (usernamePCPasswordCredentialsForProxy == null || pcGitSyncModel.getProxyOutURL(true).isEmpty()) ? "" : usernamePCPasswordCredentialsForProxy.getUsername();
@@ -250,14 +538,14 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
         return loggedIn;
     }
 
-    private boolean isAllowFolderCreation(PcRestProxy restProxy) {
-        boolean allowFolderCreation = false;
+    private TestPlanFolderTree getTestPlanFolderTree(PcRestProxy restProxy) {
+        TestPlanFolderTree testPlanFolderTree = null;
         try {
             PcTestPlanFolders pcTestPlanFolders = restProxy.getTestPlanFolders();
             if (pcTestPlanFolders != null) {
                 log(listener, "LoadRunner Enterprise or Performance Center version 12.60 or above detected.", true);
                 log(listener, "", false);
-                allowFolderCreation = true;
+                testPlanFolderTree = TestPlanFolderTree.from(pcTestPlanFolders);
             }
         } catch (PcException | IOException ex) {
             log(listener, "Cannot retrieve Test Plan folder tree which means one of the following: ", true);
@@ -265,7 +553,59 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
             log(listener, "- Domain and Project details are wrong.", true);
 
         }
-        return allowFolderCreation;
+        return testPlanFolderTree;
+    }
+
+    private static Set<String> getRequiredFolders(Set<AffectedFolder> scriptsForUpload, Set<AffectedFile> testsToCreateOrUpdate) {
+        Set<String> requiredFolders = new HashSet<>();
+        if (scriptsForUpload != null) {
+            for (AffectedFolder script : scriptsForUpload)
+                requiredFolders.add(script.getSubjectPath());
+        }
+        if (testsToCreateOrUpdate != null) {
+            for (AffectedFile test : testsToCreateOrUpdate)
+                requiredFolders.add(TestPlanFolderTree.SUBJECT_ROOT + "\\" + test.getSubjectPath());
+        }
+        return requiredFolders;
+    }
+
+    // creates the Test Plan folders required by the whole sync before any upload starts:
+    // one level at a time (a folder needs its parent), siblings of the same level in parallel.
+    private void createMissingTestPlanFolders(PcRestProxy restProxy, TestPlanFolderTree testPlanFolderTree,
+                                              Set<AffectedFolder> scriptsForUpload, Set<AffectedFile> testsToCreateOrUpdate)
+            throws InterruptedException {
+        List<List<String>> missingFoldersByDepth = testPlanFolderTree.getMissingFoldersByDepth(getRequiredFolders(scriptsForUpload, testsToCreateOrUpdate));
+        if (missingFoldersByDepth.isEmpty())
+            return;
+
+        initMessage(listener, "Creating missing Test Plan folders", false);
+        ExecutorService executor = Executors.newFixedThreadPool(FOLDER_CREATION_THREADS);
+        try {
+            for (List<String> level : missingFoldersByDepth) {
+                Map<String, Future<?>> creations = new LinkedHashMap<>();
+                for (final String folder : level) {
+                    if (!testPlanFolderTree.contains(TestPlanFolderTree.getParentPath(folder)))
+                        continue;
+                    creations.put(folder, executor.submit(() -> {
+                        restProxy.createTestPlanFolder(TestPlanFolderTree.getParentPath(folder), TestPlanFolderTree.getName(folder));
+                        return null;
+                    }));
+                }
+                for (Map.Entry<String, Future<?>> creation : creations.entrySet()) {
+                    try {
+                        creation.getValue().get();
+                        testPlanFolderTree.add(creation.getKey());
+                        log(listener, "+++++ Test Plan folder created: '%s'.", false, creation.getKey());
+                    } catch (ExecutionException ex) {
+                        log(listener, "----- Could not create Test Plan folder '%s'. Error: %s.", false, creation.getKey(), ex.getCause().getMessage());
+                        logStackTrace(listener, configureSystemSection, ex.getCause());
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            log(listener, "", false);
+        }
     }
 
     public boolean logout(boolean loggedIn, PcRestProxy restProxy) {
@@ -331,6 +671,109 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
         }
     }
 
+    /**
+     * Deletes the scripts found under the Test Plan folder of the step that have no counterpart in the workspace.
+     * The catalog is retrieved once and compared with an index of the local scripts; nothing is deleted when the
+     * orphans exceed the threshold of the step, since it usually means the step points to the wrong folder.
+     */
+    private Result deleteOrphanScriptsFromPerformanceCenter(File workspace, Set<AffectedFolder> localScripts, PcRestProxy restProxy,
+                                                            boolean allowFolderCreation)
+            throws IOException, PcException, InterruptedException {
+        initMessage(listener, "Reconciling the scripts of LoadRunner Enterprise with the Git repository", false);
+        String subjectTestPlan = pcGitSyncModel.getSubjectTestPlan(true);
+        String root = subjectTestPlan.toLowerCase(Locale.ROOT);
+
+        Set<String> localIndex = new HashSet<>();
+        for (AffectedFolder localScript : localScripts) {
+            String targetSubject = allowFolderCreation ? localScript.getSubjectPath() : subjectTestPlan;
+            localIndex.add(getScriptKey(targetSubject, localScript.getFullPath().getFileName().toString()));
+        }
+
+        List<PcScript> pcScriptList = retryPolicy.execute("Getting the list of scripts", circuitBreaker, listener,
+                () -> restProxy.getScripts().getPcScriptList());
+        int scriptsUnderRoot = 0;
+        List<PcScript> orphans = new ArrayList<>();
+        if (pcScriptList != null) {
+            for (PcScript pcScript : pcScriptList) {
+                String folder = pcScript.getTestFolderPath().toLowerCase(Locale.ROOT);
+                if (!folder.equals(root) && !folder.startsWith(root + "\\"))
+                    continue;
+                scriptsUnderRoot++;
+                if (!localIndex.contains(getScriptKey(pcScript.getTestFolderPath(), pcScript.getName())))
+                    orphans.add(pcScript);
+            }
+        }
+
+        if (orphans.isEmpty()) {
+            log(listener, "No script under '%s' is missing from the Git repository.", true, subjectTestPlan);
+            log(listener, "", false);
+            return Result.SUCCESS;
+        }
+        int threshold = pcGitSyncModel.getOrphanDeletionThreshold();
+        if (orphans.size() * 100L > (long) threshold * scriptsUnderRoot) {
+            log(listener, "----- %d of the %d scripts under '%s' are not in the Git repository, which exceeds the threshold of %d%%. No script was deleted:",
+                    true, orphans.size(), scriptsUnderRoot, subjectTestPlan, threshold);
+            for (PcScript orphan : orphans)
+                log(listener, "      '%s\\%s' (ID: %d)", false, orphan.getTestFolderPath(), orphan.getName(), orphan.getID());
+            log(listener, "", false);
+            return Result.FAILURE;
+        }
+
+        log(listener, "Deleting %d of the %d scripts under '%s' that are not in the Git repository...", true,
+                orphans.size(), scriptsUnderRoot, subjectTestPlan);
+        Map<String, List<String>> journaledScripts = getJournaledScriptsByKey(workspace, subjectTestPlan, allowFolderCreation);
+        Result result = Result.SUCCESS;
+        // LoadRunner Enterprise deletes scripts one at a time: the requests are sent in parallel instead
+        ExecutorService executor = Executors.newFixedThreadPool(ORPHAN_DELETION_THREADS);
+        try {
+            Map<PcScript, Future<?>> deletions = new LinkedHashMap<>();
+            for (final PcScript orphan : orphans) {
+                deletions.put(orphan, executor.submit(() -> retryPolicy.execute("Deleting script '" + orphan.getName() + "'",
+                        circuitBreaker, listener, () -> {
+                            restProxy.deleteScript(orphan.getID());
+                            return null;
+                        })));
+            }
+            for (Map.Entry<PcScript, Future<?>> deletion : deletions.entrySet()) {
+                PcScript orphan = deletion.getKey();
+                try {
+                    deletion.getValue().get();
+                    log(listener, "+++++ Script deleted: '%s\\%s' (ID: %d).", false, orphan.getTestFolderPath(), orphan.getName(), orphan.getID());
+                    for (String scriptRelativePath : journaledScripts.getOrDefault(
+                            getScriptKey(orphan.getTestFolderPath(), orphan.getName()), Collections.emptyList()))
+                        forgetInSyncJournal(scriptRelativePath, listener);
+                } catch (ExecutionException ex) {
+                    log(listener, "----- Could not delete script '%s\\%s' (ID: %d). Error: %s.", false,
+                            orphan.getTestFolderPath(), orphan.getName(), orphan.getID(), ex.getCause().getMessage());
+                    logStackTrace(listener, configureSystemSection, ex.getCause());
+                    result = Result.FAILURE;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            log(listener, "", false);
+        }
+        return result;
+    }
+
+    // the scripts a previous sync uploaded, by the folder and name they were given in LoadRunner Enterprise
+    private Map<String, List<String>> getJournaledScriptsByKey(File workspace, String subjectTestPlan, boolean allowFolderCreation) {
+        Map<String, List<String>> journaledScripts = new HashMap<>();
+        if (syncJournal == null)
+            return journaledScripts;
+        for (String scriptRelativePath : syncJournal.getUploadedScripts()) {
+            AffectedFolder script = new AffectedFolder(workspace.toPath().resolve(scriptRelativePath), workspace.toPath());
+            String targetSubject = allowFolderCreation ? script.getSubjectPath() : subjectTestPlan;
+            journaledScripts.computeIfAbsent(getScriptKey(targetSubject, script.getFullPath().getFileName().toString()),
+                    key -> new ArrayList<>()).add(scriptRelativePath);
+        }
+        return journaledScripts;
+    }
+
+    private static String getScriptKey(String testFolderPath, String scriptName) {
+        return (testFolderPath + "\\" + scriptName).toLowerCase(Locale.ROOT);
+    }
+
     private void scriptToDelete(PcRestProxy restProxy, boolean allowFolderCreation, String subjectTestPlan, AffectedFolder localScript) {
         String targetSubject = allowFolderCreation ? localScript.getSubjectPath() : subjectTestPlan;
         Path localScriptRelativePath = localScript.getRelativePath();
@@ -354,6 +797,8 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
                         false
                 );
             }
+            // either way the script is no longer in LoadRunner Enterprise
+            forgetInSyncJournal(localScriptRelativePath.toString(), listener);
         } catch (PcException ex) {
             log(
                     listener,
@@ -415,20 +860,46 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
         return null;
     }
 
-    private Result createOrUpdateTestsInPerformanceCenter(Set<AffectedFile> testsToCreateOrUpdate,
-                                                          PcRestProxy restProxy, boolean allowFolderCreation)
-            throws PcException, IOException, InterruptedException {
+    // test files are read ahead by a single reader; once the scripts a test references are uploaded, the test is sent
+    // by one of TEST_IMPORT_THREADS threads. The log of each test is buffered and printed later in the original order.
+    private TestImports startTestImports(Set<AffectedFile> testsToCreateOrUpdate, PcRestProxy restProxy,
+                                         boolean allowFolderCreation, ScriptUploadTracker scriptUploadTracker) {
+        if (testsToCreateOrUpdate == null || testsToCreateOrUpdate.isEmpty()) {
+            return null;
+        }
+        String subjectTestPlan = this.pcGitSyncModel.getSubjectTestPlan(true);
+        TestImports testImports = new TestImports();
+        for (AffectedFile test : testsToCreateOrUpdate) {
+            testImports.futures.add(CompletableFuture
+                    .supplyAsync(test::getTestContent, testImports.contentReader)
+                    .thenCompose(content -> scriptUploadTracker.getDependencies(getYamlTestReferences(test, content)).thenApply(ignored -> content))
+                    .thenApplyAsync(content -> importTest(restProxy, allowFolderCreation, subjectTestPlan, test, content), testImports.testImporter));
+        }
+        return testImports;
+    }
+
+    private static YamlTestReferences getYamlTestReferences(AffectedFile test, String testFileContent) {
+        String ext = FilenameUtils.getExtension(test.getFullPath().toString());
+        if (PcTestRunConstants.YAML_EXTENSION.substring(1).equalsIgnoreCase(ext) || PcTestRunConstants.YML_EXTENSION.substring(1).equalsIgnoreCase(ext))
+            return YamlTestReferences.parse(testFileContent);
+        return null;
+    }
+
+    private Result createOrUpdateTestsInPerformanceCenter(TestImports testImports)
+            throws InterruptedException {
         try {
             Result result = Result.SUCCESS;
-            String subjectTestPlan = this.pcGitSyncModel.getSubjectTestPlan(true);
-            if (testsToCreateOrUpdate == null || testsToCreateOrUpdate.isEmpty()) {
-                return result;
-            }
             uploadTestsInitialMessage();
-            //for every script to add
-            for (AffectedFile test : testsToCreateOrUpdate) {
-                Thread.sleep(50);
-                result = result.combine(createOrUpdateTest(restProxy, allowFolderCreation, result, subjectTestPlan, test));
+            for (Future<TestImport> testImport : testImports.futures) {
+                try {
+                    TestImport done = testImport.get();
+                    listener.getLogger().print(done.output);
+                    result = result.combine(done.result);
+                } catch (ExecutionException ex) {
+                    log(listener, "***** Failed to create/update the test. Error: %s.", false, ex.getCause().getMessage());
+                    logStackTrace(listener, configureSystemSection, ex.getCause());
+                    result = Result.FAILURE;
+                }
             }
             log(listener, "Finished creating or updating tests step.", true);
             log(listener, "", false);
@@ -439,7 +910,28 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
         }
     }
 
-    private Result uploadScriptsToPerformanceCenter(Set<AffectedFolder> scriptsForUpload, PcRestProxy restProxy, boolean allowFolderCreation)
+    private TestImport importTest(PcRestProxy restProxy, boolean allowFolderCreation, String subjectTestPlan,
+                                  AffectedFile test, String testFileContent) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TaskListener testListener = new StreamTaskListener(output, StandardCharsets.UTF_8);
+        Result result;
+        if (circuitBreaker.isOpen()) {
+            log(testListener, "***** LoadRunner Enterprise server is not responding, test '%s' is not created or updated.", true, test.toString(true));
+            result = Result.FAILURE;
+        } else {
+            try {
+                result = createOrUpdateTest(restProxy, allowFolderCreation, Result.SUCCESS, subjectTestPlan, test, testFileContent, testListener);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(ex);
+            }
+        }
+        testListener.getLogger().flush();
+        return new TestImport(result, new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private Result uploadScriptsToPerformanceCenter(Set<AffectedFolder> scriptsForUpload, PcRestProxy restProxy, boolean allowFolderCreation,
+                                                    ScriptUploadTracker scriptUploadTracker)
             throws PcException, InterruptedException {
         try {
             Result result = Result.SUCCESS;
@@ -453,12 +945,28 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
 
             uploadScriptsInitialMessage();
             ICompressor compressor = new Compressor();
+            ScriptVerificationMode scriptVerificationMode = this.pcGitSyncModel.getScriptVerificationMode();
+            Map<Integer, AffectedFolder> uploadedScripts = new LinkedHashMap<>();
 
             //for every script to add
 
-            for (AffectedFolder script : scriptsForUpload) {
+            try (UploadTelemetry uploadTelemetry = new UploadTelemetry(listener)) {
+                for (AffectedFolder script : scriptsForUpload) {
+                    if (circuitBreaker.isOpen()) {
+                        log(listener, "***** LoadRunner Enterprise server is not responding, the remaining scripts are not uploaded.", true);
+                        result = Result.FAILURE;
+                        break;
+                    }
+                    Thread.sleep(50);
+                    result = result.combine(uploadScript(restProxy, allowFolderCreation, result, subjectTestPlan, uploadRunTimeFiles, compressor, script, scriptVerificationMode, uploadedScripts, uploadTelemetry));
+                    scriptUploadTracker.uploadDone(script);
+                }
+                uploadTelemetry.logSummary();
+            }
+
+            if (scriptVerificationMode == ScriptVerificationMode.BATCHED && !uploadedScripts.isEmpty()) {
                 Thread.sleep(50);
-                result = result.combine(uploadScript(restProxy, allowFolderCreation, result, subjectTestPlan, uploadRunTimeFiles, compressor, script));
+                result = result.combine(verifyUploadedScripts(restProxy, uploadedScripts));
             }
 
             log(listener, "Finished uploading scripts step.", true);
@@ -471,19 +979,33 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
 
     private Result uploadScript(PcRestProxy restProxy, boolean allowFolderCreation,
                                 Result result, String subjectTestPlan, boolean uploadRunTimeFiles,
-                                ICompressor compressor, AffectedFolder script)
+                                ICompressor compressor, AffectedFolder script,
+                                ScriptVerificationMode scriptVerificationMode, Map<Integer, AffectedFolder> uploadedScripts,
+                                UploadTelemetry uploadTelemetry)
             throws InterruptedException {
         Result resultToReturn = result;
         String scriptFullPath = script.getFullPath().toString();
+        String scriptRelativePath = script.getRelativePath().toString();
         try {
             Thread.sleep(50);
-            String archive = scriptFullPath + ".zip";
-            compressor.compressDirectoryToFile(scriptFullPath, archive, true, "JENKINS PLUGIN");
-            String scriptRelativePath = script.getRelativePath().toString();
+            String archive = compressScript(compressor, script);
+            String scriptDigest = scriptDigests.get(script);
+            if (syncJournal != null && syncJournal.isScriptUploaded(scriptRelativePath, scriptDigest)) {
+                log(listener, "===== Script '%s' was already uploaded by a previous synchronization and did not change since.", true, scriptRelativePath);
+                return resultToReturn;
+            }
             String targetSubject = allowFolderCreation ? script.getSubjectPath() : subjectTestPlan;
+            long uncompressedBytes = FileUtils.sizeOfDirectory(script.getFullPath().toFile());
+            long compressedBytes = new File(archive).length();
             Thread.sleep(50);
             try {
-                int scriptId = restProxy.uploadScript(targetSubject, true, uploadRunTimeFiles, true, archive);
+                int scriptId;
+                try (UploadTelemetry.Upload upload = uploadTelemetry.start(scriptRelativePath, uncompressedBytes, compressedBytes)) {
+                    scriptId = retryPolicy.execute("Uploading script '" + scriptRelativePath + "'", circuitBreaker, listener,
+                            () -> restProxy.uploadScript(targetSubject, true, uploadRunTimeFiles, true, archive));
+                    if (scriptId != 0)
+                        upload.succeeded();
+                }
                 if (scriptId != 0) {
                     log(
                             listener,
@@ -491,17 +1013,31 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
                             true,
                             scriptRelativePath
                     );
-                    PcScript pcScript = restProxy.getScript(scriptId);
-                    log(
-                            listener,
-                            "+++++ Script uploaded successfully: '%s\\%s' (ID: %d, protocol: %s, mode: %s).",
-                            false,
-                            pcScript.getTestFolderPath(),
-                            pcScript.getName(),
-                            pcScript.getID(),
-                            pcScript.getProtocol(),
-                            pcScript.getWorkingMode()
-                    );
+                    if (scriptVerificationMode == ScriptVerificationMode.PER_SCRIPT) {
+                        PcScript pcScript = restProxy.getScript(scriptId);
+                        log(
+                                listener,
+                                "+++++ Script uploaded successfully: '%s\\%s' (ID: %d, protocol: %s, mode: %s).",
+                                false,
+                                pcScript.getTestFolderPath(),
+                                pcScript.getName(),
+                                pcScript.getID(),
+                                pcScript.getProtocol(),
+                                pcScript.getWorkingMode()
+                        );
+                    } else {
+                        log(
+                                listener,
+                                "+++++ Script uploaded successfully: '%s\\%s' (ID: %d).",
+                                false,
+                                targetSubject,
+                                script.getFullPath().getFileName().toString(),
+                                scriptId
+                        );
+                        if (scriptVerificationMode == ScriptVerificationMode.BATCHED)
+                            uploadedScripts.put(scriptId, script);
+                    }
+                    recordInSyncJournal(scriptRelativePath, scriptDigest, null, listener);
                 } else {
                     resultToReturn = reportFailureOnUploadScript(resultToReturn, scriptFullPath, null);
                 }
@@ -523,6 +1059,72 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
         return resultToReturn;
     }
 
+    // a single catalog request replaces the getScript round trip that would otherwise follow each upload
+    private Result verifyUploadedScripts(PcRestProxy restProxy, Map<Integer, AffectedFolder> uploadedScripts) {
+        Result result = Result.SUCCESS;
+        initMessage(listener, "Verifying uploaded scripts", false);
+        Map<Integer, PcScript> pcScriptsById = new HashMap<>();
+        try {
+            List<PcScript> pcScriptList = restProxy.getScripts().getPcScriptList();
+            if (pcScriptList != null) {
+                for (PcScript pcScript : pcScriptList)
+                    pcScriptsById.put(pcScript.getID(), pcScript);
+            }
+        } catch (PcException | IOException ex) {
+            log(listener, "----- Could not retrieve the list of scripts to verify the uploaded scripts. Error: %s.", false, ex.getMessage());
+            logStackTrace(listener, configureSystemSection, ex);
+            log(listener, "", false);
+            return result;
+        }
+        for (Map.Entry<Integer, AffectedFolder> uploadedScript : uploadedScripts.entrySet()) {
+            PcScript pcScript = pcScriptsById.get(uploadedScript.getKey());
+            if (pcScript != null) {
+                log(
+                        listener,
+                        "+++++ Script verified: '%s\\%s' (ID: %d, protocol: %s, mode: %s).",
+                        false,
+                        pcScript.getTestFolderPath(),
+                        pcScript.getName(),
+                        pcScript.getID(),
+                        pcScript.getProtocol(),
+                        pcScript.getWorkingMode()
+                );
+            } else {
+                log(listener, "Script '%s' (ID: %d) was not found in LoadRunner Enterprise after upload.", false,
+                        uploadedScript.getValue().getRelativePath().toString(), uploadedScript.getKey());
+                result = reportFailureOnUploadScript(result, uploadedScript.getValue().getFullPath().toString(), null);
+            }
+        }
+        log(listener, "", false);
+        return result;
+    }
+
+    // a journal that cannot be written only costs a longer resume, it must not fail the item
+    private void recordInSyncJournal(String relativePath, String digest, String testId, TaskListener itemListener) {
+        if (syncJournal == null)
+            return;
+        try {
+            if (testId == null)
+                syncJournal.scriptUploaded(relativePath, digest);
+            else
+                syncJournal.testCreated(relativePath, digest, testId);
+        } catch (IOException ex) {
+            log(itemListener, "----- Could not update the synchronization journal. Error: %s.", false, ex.getMessage());
+            logStackTrace(itemListener, configureSystemSection, ex);
+        }
+    }
+
+    private void forgetInSyncJournal(String scriptRelativePath, TaskListener itemListener) {
+        if (syncJournal == null)
+            return;
+        try {
+            syncJournal.scriptDeleted(scriptRelativePath);
+        } catch (IOException ex) {
+            log(itemListener, "----- Could not update the synchronization journal. Error: %s.", false, ex.getMessage());
+            logStackTrace(itemListener, configureSystemSection, ex);
+        }
+    }
+
     private Result reportFailureOnUploadScript(Result resultToReturn, String scriptFullPath, Exception ex) {
         if (Helper.isUsrScript(scriptFullPath)) {
             resultToReturn = Result.FAILURE;
@@ -543,8 +1145,7 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
             log(
                     listener,
                     "----- Failed to upload the script but since this is a custom script (possibly introduced in latest versions of LRE), the build will not fail.",
-                    false,
-                    ex.getMessage()
+                    false
             );
             if (ex != null) {
                 log(
@@ -563,7 +1164,7 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
     }
 
     private Result createOrUpdateTest(PcRestProxy restProxy, boolean allowFolderCreation, Result result,
-                                      String subjectTestPlan, AffectedFile test)
+                                      String subjectTestPlan, AffectedFile test, String testFileContent, TaskListener testListener)
             throws InterruptedException {
         Result resultToReturn = result;
         String testFullPath = test.getFullPath().toString();
@@ -572,21 +1173,29 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
         try {
             Thread.sleep(50);
             String targetSubject = allowFolderCreation ? test.getSubjectPath() : subjectTestPlan;
-            String testFileContent = test.getTestContent();
             if (isXmlFile && (!testFileContent.toLowerCase().contains("<Test xmlns=\"http://www.hp.com/PC/REST/API".toLowerCase()) || !configureSystemSection.getDebug()))
                 return resultToReturn;
+            String testRelativePath = test.getRelativePath().resolve(test.getFullPath().getFileName()).toString();
+            String testDigest = syncJournal == null ? null : ContentDigest.ofString(targetSubject + "\n" + testFileContent);
+            String journaledTestId = syncJournal == null ? null : syncJournal.getCreatedTestId(testRelativePath, testDigest);
+            if (journaledTestId != null) {
+                log(testListener, "===== Test '%s' was already created/updated by a previous synchronization (ID: %s) and did not change since.",
+                        true, testRelativePath, journaledTestId);
+                return resultToReturn;
+            }
             try {
                 log(
-                        listener,
+                        testListener,
                         "Creating or updating test '%s' from Git to LoadRunner Enterprise",
                         true,
                         test.getRelativePath().toString().replace("/", "\\").concat("\\").concat(test.getFullPath().getFileName().toString())
                 );
-                Test createdTest = doCreateOrUpdateTest(restProxy, test, ext, isXmlFile, targetSubject, testFileContent);
+                Test createdTest = retryPolicy.execute("Creating or updating test '" + testRelativePath + "'", circuitBreaker, testListener,
+                        () -> doCreateOrUpdateTest(restProxy, test, ext, isXmlFile, targetSubject, testFileContent));
                 Thread.sleep(50);
                 if (createdTest == null) {
                     log(
-                            listener,
+                            testListener,
                             "----- Test was not created/updated",
                             false
                     );
@@ -594,17 +1203,18 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
                 }
                 if (Common.stringToInteger(createdTest.getID()) > 0) {
                     log(
-                            listener,
+                            testListener,
                             "+++++ Test created/updated successfully: '%s\\%s' (ID: %s).",
                             false,
                             createdTest.getTestFolderPath(),
                             createdTest.getName(),
                             createdTest.getID()
                     );
+                    recordInSyncJournal(testRelativePath, testDigest, createdTest.getID(), testListener);
                 } else {
                     resultToReturn = isXmlFile ? Result.SUCCESS : Result.FAILURE;
                     log(
-                            listener,
+                            testListener,
                             "----- Failed to create/update the test.",
                             false
                     );
@@ -613,25 +1223,25 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
             } catch (PcException ex) {
                 resultToReturn = isXmlFile ? Result.SUCCESS : Result.FAILURE;
                 log(
-                        listener,
+                        testListener,
                         "***** Failed to create/update the test. Error: %s.",
                         false,
                         ex.getMessage()
                 );
-                logStackTrace(listener, configureSystemSection, ex);
+                logStackTrace(testListener, configureSystemSection, ex);
             }
         } catch (IOException ex) {
             resultToReturn = isXmlFile ? Result.SUCCESS : Result.FAILURE;
             log(
-                    listener,
+                    testListener,
                     "***** Failed to create/update the script. Error: %s.",
                     false,
                     ex.getMessage()
             );
-            logStackTrace(listener, configureSystemSection, ex);
+            logStackTrace(testListener, configureSystemSection, ex);
         } finally {
             log(
-                    listener,
+                    testListener,
                     "",
                     false
             );
@@ -665,39 +1275,88 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
     }
 
     private void logSetOfChangedFiles(String header, Set<ModifiedFile> modifiedFiles) {
+        // the lists were already logged by the priority part of the sync
+        if (syncScope == SyncScope.REMAINDER)
+            return;
         log(listener, "", true);
-        log(listener, header, true);
-        modifiedFiles.forEach(changedFile -> {
-            log(listener, changedFile.toString(true), false);
-        });
+        logHeader(header, modifiedFiles.size());
+        List<String> entries = new ArrayList<>();
+        modifiedFiles.forEach(changedFile -> entries.add(changedFile.toString(true)));
+        logEntries(header, entries);
         log(listener, "", true);
     }
 
     private void logSetOfAffectedScripts(String header, Set<AffectedFolder> affectedFiles) {
-        log(listener, header, true);
+        if (syncScope == SyncScope.REMAINDER)
+            return;
+        logHeader(header, affectedFiles.size());
 
         if (affectedFiles.isEmpty()) {
             log(listener, "(None)", false);
             return;
         }
 
-        affectedFiles.forEach(affectedFile -> {
-            log(listener, affectedFile.toString(true), false);
-        });
+        List<String> entries = new ArrayList<>();
+        affectedFiles.forEach(affectedFile -> entries.add(affectedFile.toString(true)));
+        logEntries(header, entries);
         log(listener, "", true);
     }
 
     private void logSetOfAffectedTests(String header, Set<AffectedFile> affectedFiles) {
-        log(listener, header, true);
+        if (syncScope == SyncScope.REMAINDER)
+            return;
+        logHeader(header, affectedFiles.size());
 
         if (affectedFiles.isEmpty()) {
             log(listener, "(None)", false);
             return;
         }
 
-        affectedFiles.forEach(affectedFile -> {
-            log(listener, affectedFile.toString(true), false);
-        });
+        List<String> entries = new ArrayList<>();
+        affectedFiles.forEach(affectedFile -> entries.add(affectedFile.toString(true)));
+        logEntries(header, entries);
+    }
+
+    private void logHeader(String header, int count) {
+        if (syncChangeLists == null)
+            log(listener, header, true);
+        else
+            log(listener, "%s (%d)", true, header, count);
+    }
+
+    // in summary mode, only the first entries reach the console and the whole list goes to the change lists artifact,
+    // where the header of the list is used as category
+    private void logEntries(String header, List<String> entries) {
+        if (syncChangeLists == null) {
+            entries.forEach(entry -> log(listener, entry, false));
+            return;
+        }
+        for (int i = 0; i < entries.size() && i < SyncChangeLists.SUMMARY_ENTRIES; i++)
+            log(listener, entries.get(i), false);
+        try {
+            for (String entry : entries)
+                syncChangeLists.write(header.replaceFirst(":$", ""), entry);
+            if (entries.size() > SyncChangeLists.SUMMARY_ENTRIES)
+                log(listener, "... and %d more, listed in the build artifact '%s'.", false,
+                        entries.size() - SyncChangeLists.SUMMARY_ENTRIES, SyncChangeLists.CHANGES_FILE);
+        } catch (IOException ex) {
+            log(listener, "Could not write the file '%s', the remaining entries are listed here: %s.", false,
+                    SyncChangeLists.CHANGES_FILE, ex.getMessage());
+            closeSyncChangeLists();
+            for (int i = SyncChangeLists.SUMMARY_ENTRIES; i < entries.size(); i++)
+                log(listener, entries.get(i), false);
+        }
+    }
+
+    private void closeSyncChangeLists() {
+        if (syncChangeLists == null)
+            return;
+        try {
+            syncChangeLists.close();
+        } catch (IOException ex) {
+            log(listener, "Could not write the file '%s': %s.", false, SyncChangeLists.CHANGES_FILE, ex.getMessage());
+        }
+        syncChangeLists = null;
     }
 
     private boolean validateParameters(TaskListener listener) {
@@ -769,4 +1428,26 @@ public class PcGitSyncClient implements FilePath.FileCallable<Result>, Serializa
     public UsernamePasswordCredentials getUsernamePCPasswordCredentialsForProxy() {
         return this.usernamePCPasswordCredentialsForProxy;
     }
+
+    private static final class TestImports implements AutoCloseable {
+        private final ExecutorService contentReader = Executors.newSingleThreadExecutor();
+        private final ExecutorService testImporter = Executors.newFixedThreadPool(TEST_IMPORT_THREADS);
+        private final List<Future<TestImport>> futures = new ArrayList<>();
+
+        @Override
+        public void close() {
+            testImporter.shutdownNow();
+            contentReader.shutdownNow();
+        }
+    }
+
+    private static final class TestImport {
+        private final Result result;
+        private final String output;
+
+        private TestImport(Result result, String output) {
+            this.result = result;
+            this.output = output;
+        }
+    }
 }
@@ -26,11 +26,14 @@
  * */
 package com.microfocus.performancecenter.integration.pcgitsync;
 
+import com.microfocus.performancecenter.integration.pcgitsync.helper.ConsoleOutputMode;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.ScriptVerificationMode;
 import com.microfocus.performancecenter.integration.pcgitsync.helper.UploadScriptMode;
 import com.microfocus.performancecenter.integration.pcgitsync.helper.YesOrNo;
 import org.kohsuke.stapler.DataBoundConstructor;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -39,6 +42,8 @@ public class PcGitSyncModel implements Serializable {
 
     private static final String EXPECTED_CREDENTIALSID_PARAMETER_NAME = "CREDENTIALSID";
     private static final String EXPECTED_CREDENTIALSPROXYID_PARAMETER_NAME = "CREDENTIALSPROXYID";
+    public static final int DEFAULT_ORPHAN_DELETION_THRESHOLD = 10;
+    public static final String TARGET_SEPARATOR = ";";
 
     private final String description;
     private final String pcServerName;
@@ -54,13 +59,23 @@ public class PcGitSyncModel implements Serializable {
     private final YesOrNo removeScriptFromPC;
     private final YesOrNo importTests;
     private final boolean authenticateWithToken;
+    private final ScriptVerificationMode scriptVerificationMode;
+    private final boolean dryRun;
+    private final String additionalTargets;
+    private final boolean reconcileOrphans;
+    private final int orphanDeletionThreshold;
+    private final ConsoleOutputMode consoleOutputMode;
+    private final String priorityTest;
     private String buildParameters;
 
     @DataBoundConstructor
     public PcGitSyncModel(String description, String pcServerName, String serverAndPort, boolean httpsProtocol,
                           String credentialsId, String almDomain, String almProject,
                           String proxyOutURL, String credentialsProxyId,
-                          String subjectTestPlan, UploadScriptMode uploadScriptMode, YesOrNo removeScriptFromPC, YesOrNo importTests, boolean authenticateWithToken, String buildParameters) {
+                          String subjectTestPlan, UploadScriptMode uploadScriptMode, YesOrNo removeScriptFromPC, YesOrNo importTests, boolean authenticateWithToken,
+                          ScriptVerificationMode scriptVerificationMode, boolean dryRun, String additionalTargets,
+                          boolean reconcileOrphans, int orphanDeletionThreshold, ConsoleOutputMode consoleOutputMode,
+                          String priorityTest, String buildParameters) {
         this.description = description;
         this.pcServerName = pcServerName;
         this.serverAndPort = serverAndPort;
@@ -82,6 +97,13 @@ public class PcGitSyncModel implements Serializable {
         this.importTests = importTests;
         this.buildParameters = "";
         this.authenticateWithToken = authenticateWithToken;
+        this.scriptVerificationMode = scriptVerificationMode;
+        this.dryRun = dryRun;
+        this.additionalTargets = additionalTargets;
+        this.reconcileOrphans = reconcileOrphans;
+        this.orphanDeletionThreshold = orphanDeletionThreshold;
+        this.consoleOutputMode = consoleOutputMode;
+        this.priorityTest = priorityTest;
     }
 
     public static List<UploadScriptMode> getUploadScriptModes() {
@@ -92,6 +114,14 @@ public class PcGitSyncModel implements Serializable {
         return Arrays.asList(YesOrNo.values());
     }
 
+    public static List<ScriptVerificationMode> getScriptVerificationModes() {
+        return Arrays.asList(ScriptVerificationMode.values());
+    }
+
+    public static List<ConsoleOutputMode> getConsoleOutputModes() {
+        return Arrays.asList(ConsoleOutputMode.values());
+    }
+
     private static String useParameterIfNeeded(String buildParameters, String attribute) {
         if (buildParameters != null && attribute != null && attribute.startsWith("$")) {
             String attributeParameter = attribute.replace("$", "").replace("{", "").replace("}", "");
@@ -201,6 +231,106 @@ public class PcGitSyncModel implements Serializable {
         return this.importTests;
     }
 
+    public ScriptVerificationMode getScriptVerificationMode() {
+        // jobs saved before this option existed keep verifying each uploaded script
+        return this.scriptVerificationMode == null ? ScriptVerificationMode.PER_SCRIPT : this.scriptVerificationMode;
+    }
+
+    public boolean isDryRun() {
+        return this.dryRun;
+    }
+
+    public String getAdditionalTargets() {
+        return this.additionalTargets;
+    }
+
+    public boolean isReconcileOrphans() {
+        return this.reconcileOrphans;
+    }
+
+    public ConsoleOutputMode getConsoleOutputMode() {
+        // jobs saved before this option existed keep listing every file in the console
+        return this.consoleOutputMode == null ? ConsoleOutputMode.FULL : this.consoleOutputMode;
+    }
+
+    public String getPriorityTest() {
+        return this.priorityTest;
+    }
+
+    public String getPriorityTest(boolean fromPcClient) {
+        return fromPcClient ? useParameterIfNeeded(buildParameters, getPriorityTest()) : getPriorityTest();
+    }
+
+    // maximum percentage of the scripts under the Test Plan folder that a reconciliation may delete
+    public int getOrphanDeletionThreshold() {
+        return (orphanDeletionThreshold <= 0 || orphanDeletionThreshold > 100) ? DEFAULT_ORPHAN_DELETION_THRESHOLD : orphanDeletionThreshold;
+    }
+
+    /**
+     * @return the project of this model followed by the additional targets, one line each in the format
+     * 'server;domain;project'. All targets share the other settings, including the credentials.
+     */
+    public List<PcGitSyncModel> getTargets() {
+        List<PcGitSyncModel> targets = new ArrayList<>();
+        targets.add(this);
+        if (additionalTargets == null)
+            return targets;
+        for (String line : additionalTargets.split("\\r?\\n")) {
+            String[] target = parseTarget(line);
+            if (target == null)
+                continue;
+            PcGitSyncModel targetModel = new PcGitSyncModel(description, target[0], serverAndPort, httpsProtocol,
+                    credentialsId, target[1], target[2], proxyOutURL, credentialsProxyId, subjectTestPlan,
+                    uploadScriptMode, removeScriptFromPC, importTests, authenticateWithToken, scriptVerificationMode, dryRun,
+                    "", reconcileOrphans, orphanDeletionThreshold, consoleOutputMode, priorityTest, "");
+            targetModel.setBuildParameters(buildParameters);
+            targets.add(targetModel);
+        }
+        return targets;
+    }
+
+    /**
+     * @return the lines of the additional targets that are not in the format 'server;domain;project', which
+     * {@link #getTargets} leaves out.
+     */
+    public List<String> getInvalidTargets() {
+        List<String> invalidTargets = new ArrayList<>();
+        if (additionalTargets == null)
+            return invalidTargets;
+        for (String line : additionalTargets.split("\\r?\\n")) {
+            if (isTargetLine(line) && parseTarget(line) == null)
+                invalidTargets.add(line.trim());
+        }
+        return invalidTargets;
+    }
+
+    // empty lines and comments are not targets
+    static boolean isTargetLine(String line) {
+        return !line.trim().isEmpty() && !line.trim().startsWith("#");
+    }
+
+    /**
+     * @return the server, domain and project of a line of the additional targets, or null when it is not a target
+     * or not in the format 'server;domain;project' with no empty value.
+     */
+    static String[] parseTarget(String line) {
+        if (!isTargetLine(line))
+            return null;
+        String[] target = line.trim().split(TARGET_SEPARATOR, -1);
+        if (target.length != 3)
+            return null;
+        for (int i = 0; i < target.length; i++) {
+            target[i] = target[i].trim();
+            if (target[i].isEmpty())
+                return null;
+        }
+        return target;
+    }
+
+    public String getTargetName() {
+        return String.format("%s/%s/%s", getPcServerName(true), getAlmDomain(true), getAlmProject(true));
+    }
+
     @Override
     public String toString() {
         return String.format("%s", runParamsToString().substring(1));
@@ -208,9 +338,9 @@ public class PcGitSyncModel implements Serializable {
 
     public String runParamsToString() {
         return String.format("[PCServer='%s', HTTPSProtocol='%s', CredentialsId='%s', Domain='%s', Project='%s', " +
-                        "proxy='%s', CredentialsProxyId='%s', subjectTestPlan = '%s', uploadScriptMode='%s', removeScriptFromPC='%s', importTests='%s', UseTokenForAuthentication= '%s']",
+                        "proxy='%s', CredentialsProxyId='%s', subjectTestPlan = '%s', uploadScriptMode='%s', removeScriptFromPC='%s', importTests='%s', UseTokenForAuthentication= '%s', scriptVerificationMode='%s', dryRun='%s', reconcileOrphans='%s', orphanDeletionThreshold='%s', consoleOutputMode='%s', priorityTest='%s']",
                 pcServerName, httpsProtocol, credentialsId, almDomain, almProject,
-                proxyOutURL, credentialsProxyId, subjectTestPlan, uploadScriptMode.getValue(), removeScriptFromPC.getValue(), importTests.getValue(), authenticateWithToken);
+                proxyOutURL, credentialsProxyId, subjectTestPlan, uploadScriptMode.getValue(), removeScriptFromPC.getValue(), importTests.getValue(), authenticateWithToken, getScriptVerificationMode().getValue(), dryRun, reconcileOrphans, getOrphanDeletionThreshold(), getConsoleOutputMode().getValue(), priorityTest);
     }
 
     //public boolean getAuthenticateWithToken(){ return this.authenticateWithToken; }
@@ -0,0 +1,126 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync.helper;
+
+import com.microfocus.performancecenter.integration.common.helpers.services.UnsyncedChangesAction;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
+
+/**
+ * Git syncs that continue in the background of a build while its test runs, kept until the build waits for them.
+ * A build waits for its background syncs at the end of its test run step, after its last build step, or when it
+ * completes at the latest.
+ */
+public final class BackgroundSyncRegistry {
+
+    private static final Map<String, List<BackgroundSync>> PENDING = new HashMap<>();
+
+    private BackgroundSyncRegistry() {
+    }
+
+    /**
+     * @param onCompletion released once the sync completed, e.g. the sync lock of the project.
+     */
+    public static void register(Run<?, ?> build, Future<Result> sync, Closeable onCompletion) {
+        synchronized (PENDING) {
+            List<BackgroundSync> syncs = PENDING.get(build.getExternalizableId());
+            if (syncs == null) {
+                syncs = new ArrayList<>();
+                PENDING.put(build.getExternalizableId(), syncs);
+            }
+            syncs.add(new BackgroundSync(sync, onCompletion));
+        }
+    }
+
+    /**
+     * Waits for the background syncs of the build, if any, and includes their result in the result of the build.
+     * A build whose background sync failed is also marked so that the next sync includes its changes, since the
+     * result can no longer change once the build is completed.
+     *
+     * @return true if the build had background syncs.
+     */
+    public static boolean await(Run<?, ?> build, TaskListener listener) throws InterruptedException {
+        List<BackgroundSync> syncs;
+        synchronized (PENDING) {
+            syncs = PENDING.remove(build.getExternalizableId());
+        }
+        if (syncs == null)
+            return false;
+        log(listener, "Waiting for the Git synchronization running in the background to complete...", true);
+        for (int i = 0; i < syncs.size(); i++) {
+            BackgroundSync backgroundSync = syncs.get(i);
+            Result result;
+            try {
+                result = backgroundSync.sync.get();
+            } catch (ExecutionException ex) {
+                log(listener, "The Git synchronization running in the background failed: %s.", true, ex.getCause().getMessage());
+                result = Result.FAILURE;
+            } catch (InterruptedException ex) {
+                for (BackgroundSync remainingSync : syncs.subList(i, syncs.size())) {
+                    remainingSync.sync.cancel(true);
+                    remainingSync.complete();
+                }
+                throw ex;
+            } finally {
+                backgroundSync.complete();
+            }
+            log(listener, "The Git synchronization running in the background completed with result %s.", true, result);
+            if (result.isWorseThan(Result.SUCCESS))
+                build.addAction(new UnsyncedChangesAction("synchronization in the background ended with " + result));
+            build.setResult(result);
+        }
+        return true;
+    }
+
+    private static final class BackgroundSync {
+        private final Future<Result> sync;
+        private final Closeable onCompletion;
+        private boolean completed;
+
+        private BackgroundSync(Future<Result> sync, Closeable onCompletion) {
+            this.sync = sync;
+            this.onCompletion = onCompletion;
+        }
+
+        private synchronized void complete() {
+            if (completed)
+                return;
+            completed = true;
+            try {
+                onCompletion.close();
+            } catch (IOException ex) {
+                // nothing left to release
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync.helper;
+
+import com.microfocus.performancecenter.integration.common.helpers.utils.AffectedFolder;
+import com.microfocus.performancecenter.integration.common.helpers.utils.YamlTestReferences;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tracks the completion of the script uploads of a sync so that each test can be created as soon as the scripts it
+ * references are uploaded, instead of after all uploads.
+ */
+public class ScriptUploadTracker {
+
+    private final Map<String, CompletableFuture<Void>> uploads = new HashMap<>();
+    private final Set<String> existingScripts = new HashSet<>();
+    private final CompletableFuture<Void> allUploads;
+
+    public ScriptUploadTracker(Collection<AffectedFolder> scriptsForUpload) {
+        this(scriptsForUpload, null);
+    }
+
+    /**
+     * @param existingScripts scripts of the workspace already in LoadRunner Enterprise at the path a test references
+     *                        them by, or null when they are not known.
+     */
+    public ScriptUploadTracker(Collection<AffectedFolder> scriptsForUpload, Collection<AffectedFolder> existingScripts) {
+        if (scriptsForUpload != null) {
+            for (AffectedFolder script : scriptsForUpload)
+                uploads.put(getKey(script), new CompletableFuture<Void>());
+        }
+        if (existingScripts != null) {
+            for (AffectedFolder script : existingScripts)
+                this.existingScripts.add(getKey(script));
+        }
+        allUploads = CompletableFuture.allOf(uploads.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    private static String getKey(AffectedFolder script) {
+        return YamlTestReferences.normalizeScriptPath(script.getRelativePath().toString().replace(File.separatorChar, '\\'));
+    }
+
+    // a failed upload also completes: the test creation reports the missing script by itself
+    public void uploadDone(AffectedFolder script) {
+        CompletableFuture<Void> upload = uploads.get(getKey(script));
+        if (upload != null)
+            upload.complete(null);
+    }
+
+    public void allUploadsDone() {
+        for (CompletableFuture<Void> upload : uploads.values())
+            upload.complete(null);
+    }
+
+    /**
+     * @param references script references of a YAML test, or null when they are unknown (XML test): the test then
+     *                   waits for all the uploads, as it does when it references a script path matching no upload
+     *                   and no existing script.
+     * @return a future completed when the uploads the test depends on are done.
+     */
+    public CompletableFuture<Void> getDependencies(YamlTestReferences references) {
+        if (references == null || (!references.hasScriptReferences()))
+            return allUploads;
+        // scripts referenced by ID already exist in LoadRunner Enterprise: re-uploading them keeps their ID
+        List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (String scriptPath : references.getScriptPaths()) {
+            CompletableFuture<Void> upload = uploads.get(scriptPath);
+            if (upload != null)
+                dependencies.add(upload);
+            else if (!existingScripts.contains(scriptPath))
+                return allUploads;
+        }
+        return CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync.helper;
+
+import net.sf.json.JSONObject;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full lists of the files and items affected by a Git sync, streamed to a compressed JSON lines file (one
+ * {"category", "entry"} object per line) when the console only shows a summary of them.
+ */
+public class SyncChangeLists implements Closeable {
+
+    public static final String CHANGES_FILE = "sync-changes.jsonl.gz";
+    public static final int SUMMARY_ENTRIES = 10;
+
+    private final File changesFile;
+    private Writer writer;
+
+    private SyncChangeLists(File changesFile) {
+        this.changesFile = changesFile;
+    }
+
+    // the file of a previous build is deleted so that it is never archived with this one
+    public static SyncChangeLists open(File workspace) throws IOException {
+        File changesFile = new File(SyncJournal.getSyncFolder(workspace), CHANGES_FILE);
+        Files.deleteIfExists(changesFile.toPath());
+        return new SyncChangeLists(changesFile);
+    }
+
+    public void write(String category, String entry) throws IOException {
+        if (writer == null) {
+            File folder = changesFile.getParentFile();
+            if (!folder.isDirectory() && !folder.mkdirs())
+                throw new IOException("Could not create folder " + folder);
+            writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(changesFile)), StandardCharsets.UTF_8));
+        }
+        writer.write(new JSONObject().element("category", category).element("entry", entry).toString());
+        writer.write('\n');
+    }
+
+    public File getChangesFile() {
+        return changesFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
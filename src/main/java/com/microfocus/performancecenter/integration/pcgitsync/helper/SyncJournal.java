@@ -0,0 +1,132 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync.helper;
+
+import com.microfocus.performancecenter.integration.common.helpers.utils.ContentDigest;
+import com.microfocus.performancecenter.integration.common.helpers.utils.PropertiesFileHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Journal of the items already sent to LoadRunner Enterprise by a sync that did not complete successfully.
+ * It is kept next to the workspace (in the "@tmp" folder Jenkins reserves for plugins) so that the next sync of the
+ * same target can skip scripts and tests whose content did not change since they were sent, and is deleted once a
+ * sync completes successfully.
+ */
+public class SyncJournal {
+
+    public static final String SYNC_FOLDER = "lre-git-sync";
+    private static final String JOURNAL_FILE_PREFIX = "journal-";
+    private static final String JOURNAL_FILE_EXTENSION = ".properties";
+    private static final String FINGERPRINT_KEY = "fingerprint";
+    private static final String SCRIPT_PREFIX = "script.";
+    private static final String TEST_PREFIX = "test.";
+
+    private final File journalFile;
+    private final Properties entries = new Properties();
+    private final int resumedEntries;
+
+    private SyncJournal(File journalFile, String fingerprint, Properties previousEntries) {
+        this.journalFile = journalFile;
+        if (fingerprint.equals(previousEntries.getProperty(FINGERPRINT_KEY)))
+            this.entries.putAll(previousEntries);
+        this.entries.setProperty(FINGERPRINT_KEY, fingerprint);
+        this.resumedEntries = this.entries.size() - 1;
+    }
+
+    /**
+     * @param fingerprint identifies the target of the sync; each target has its own journal file, so that several
+     *                    projects synchronized from the same workspace do not overwrite each other's journal.
+     */
+    public static SyncJournal open(File workspace, String fingerprint) {
+        File journalFile = new File(getSyncFolder(workspace),
+                JOURNAL_FILE_PREFIX + ContentDigest.ofString(fingerprint).substring(0, 16) + JOURNAL_FILE_EXTENSION);
+        return new SyncJournal(journalFile, fingerprint, PropertiesFileHelper.load(journalFile));
+    }
+
+    // same location as hudson.slaves.WorkspaceList.tempDir(workspace), for a plain File on the agent
+    public static File getSyncFolder(File workspace) {
+        return new File(new File(workspace.getParentFile(), workspace.getName() + "@tmp"), SYNC_FOLDER);
+    }
+
+    public int getResumedEntries() {
+        return resumedEntries;
+    }
+
+    public synchronized boolean isScriptUploaded(String scriptRelativePath, String digest) {
+        return digest != null && digest.equals(entries.getProperty(SCRIPT_PREFIX + scriptRelativePath));
+    }
+
+    public synchronized void scriptUploaded(String scriptRelativePath, String digest) throws IOException {
+        if (digest == null)
+            return;
+        entries.setProperty(SCRIPT_PREFIX + scriptRelativePath, digest);
+        save();
+    }
+
+    /**
+     * Forgets a script deleted from LoadRunner Enterprise: restored later with the same content, it is uploaded again.
+     */
+    public synchronized void scriptDeleted(String scriptRelativePath) throws IOException {
+        if (entries.remove(SCRIPT_PREFIX + scriptRelativePath) != null)
+            save();
+    }
+
+    public synchronized Set<String> getUploadedScripts() {
+        Set<String> uploadedScripts = new TreeSet<>();
+        for (String key : entries.stringPropertyNames()) {
+            if (key.startsWith(SCRIPT_PREFIX))
+                uploadedScripts.add(key.substring(SCRIPT_PREFIX.length()));
+        }
+        return uploadedScripts;
+    }
+
+    /**
+     * @return the ID of the test created from the same content by a previous sync, or null if there is none.
+     */
+    public synchronized String getCreatedTestId(String testRelativePath, String digest) {
+        return PropertiesFileHelper.getIdOfDigestEntry(entries.getProperty(TEST_PREFIX + testRelativePath), digest);
+    }
+
+    public synchronized void testCreated(String testRelativePath, String digest, String testId) throws IOException {
+        if (digest == null)
+            return;
+        entries.setProperty(TEST_PREFIX + testRelativePath, PropertiesFileHelper.toDigestEntry(digest, testId));
+        save();
+    }
+
+    public synchronized void complete() throws IOException {
+        entries.clear();
+        Files.deleteIfExists(journalFile.toPath());
+    }
+
+    private void save() throws IOException {
+        PropertiesFileHelper.store(journalFile, entries, "LoadRunner Enterprise Git sync journal");
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync.helper;
+
+import hudson.model.TaskListener;
+
+import java.util.*;
+import java.util.concurrent.Semaphore;
+
+import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
+
+/**
+ * Serializes the syncs sent to the same LoadRunner Enterprise project by the builds running on this Jenkins controller,
+ * and keeps track of the newest build of each job waiting for a project so that older builds can step aside.
+ * Since a sync covers all the changes made since the last successful build, skipping a superseded build loses nothing.
+ */
+public final class SyncLockRegistry {
+
+    private static final Map<String, TargetLock> TARGETS = new HashMap<>();
+
+    private SyncLockRegistry() {
+    }
+
+    /**
+     * Registers the build as the newest sync of the job for the given targets. The locks are only taken by
+     * {@link SyncLock#acquire(TaskListener)}, and released (with the registration) when the returned lock is closed.
+     */
+    public static SyncLock register(Collection<String> targetNames, String jobName, int buildNumber) {
+        // sorted, so that builds syncing several projects always take the locks in the same order
+        SortedSet<String> keys = new TreeSet<>();
+        for (String targetName : targetNames)
+            keys.add(targetName.toLowerCase(Locale.ROOT));
+        List<TargetLock> targetLocks = new ArrayList<>();
+        synchronized (TARGETS) {
+            for (String key : keys) {
+                TargetLock targetLock = TARGETS.get(key);
+                if (targetLock == null) {
+                    targetLock = new TargetLock(key);
+                    TARGETS.put(key, targetLock);
+                }
+                targetLock.users++;
+                Integer latestBuild = targetLock.latestBuildByJob.get(jobName);
+                if (latestBuild == null || latestBuild < buildNumber)
+                    targetLock.latestBuildByJob.put(jobName, buildNumber);
+                targetLocks.add(targetLock);
+            }
+        }
+        return new SyncLock(targetLocks, jobName, buildNumber);
+    }
+
+    private static final class TargetLock {
+        private final String key;
+        // not owned by a thread: a sync that continues in the background releases it from another thread
+        private final Semaphore lock = new Semaphore(1, true);
+        private final Map<String, Integer> latestBuildByJob = new HashMap<>();
+        private int users;
+
+        private TargetLock(String key) {
+            this.key = key;
+        }
+    }
+
+    public static final class SyncLock implements AutoCloseable {
+        private final List<TargetLock> targetLocks;
+        private final List<TargetLock> heldLocks = new ArrayList<>();
+        private final String jobName;
+        private final int buildNumber;
+        private boolean closed;
+
+        private SyncLock(List<TargetLock> targetLocks, String jobName, int buildNumber) {
+            this.targetLocks = targetLocks;
+            this.jobName = jobName;
+            this.buildNumber = buildNumber;
+        }
+
+        public void acquire(TaskListener listener) throws InterruptedException {
+            for (TargetLock targetLock : targetLocks) {
+                if (!targetLock.lock.tryAcquire()) {
+                    log(listener, "Waiting for another build to complete its synchronization with '%s'.", true, targetLock.key);
+                    targetLock.lock.acquire();
+                }
+                heldLocks.add(targetLock);
+            }
+        }
+
+        /**
+         * @return the number of a newer build of the same job registered for one of the targets, or 0 if there is none.
+         */
+        public int getSupersedingBuild() {
+            int supersedingBuild = 0;
+            synchronized (TARGETS) {
+                for (TargetLock targetLock : targetLocks) {
+                    Integer latestBuild = targetLock.latestBuildByJob.get(jobName);
+                    if (latestBuild != null && latestBuild > buildNumber)
+                        supersedingBuild = Math.max(supersedingBuild, latestBuild);
+                }
+            }
+            return supersedingBuild;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed)
+                return;
+            closed = true;
+            for (int i = heldLocks.size() - 1; i >= 0; i--)
+                heldLocks.get(i).lock.release();
+            heldLocks.clear();
+            synchronized (TARGETS) {
+                for (TargetLock targetLock : targetLocks) {
+                    Integer latestBuild = targetLock.latestBuildByJob.get(jobName);
+                    if (latestBuild != null && latestBuild == buildNumber)
+                        targetLock.latestBuildByJob.remove(jobName);
+                    if (--targetLock.users == 0)
+                        TARGETS.remove(targetLock.key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync.helper;
+
+import hudson.model.TaskListener;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
+
+/**
+ * Everything a Git sync would send to LoadRunner Enterprise, computed without connecting to it (dry run).
+ */
+public class SyncPlan {
+
+    public static final String PLAN_FILE = "sync-plan.json";
+    private static final int LARGEST_SCRIPTS_TO_LOG = 10;
+    private static final double MEGABYTE = 1024d * 1024d;
+
+    private final JSONObject target;
+    private final boolean fullSync;
+    private final List<String> foldersRequired = new ArrayList<>();
+    private final List<ScriptUpload> scriptsToUpload = new ArrayList<>();
+    private final List<JSONObject> scriptsToDelete = new ArrayList<>();
+    private final List<JSONObject> testsToCreateOrUpdate = new ArrayList<>();
+    private JSONObject orphanReconciliation;
+
+    public SyncPlan(String server, String domain, String project, String subjectTestPlan, String uploadScriptMode, boolean fullSync) {
+        this.target = new JSONObject()
+                .element("server", server)
+                .element("domain", domain)
+                .element("project", project)
+                .element("subjectTestPlan", subjectTestPlan)
+                .element("uploadScriptMode", uploadScriptMode);
+        this.fullSync = fullSync;
+    }
+
+    public void addFoldersRequired(List<List<String>> foldersByDepth) {
+        for (List<String> level : foldersByDepth)
+            foldersRequired.addAll(level);
+    }
+
+    public void addScriptToUpload(String relativePath, String targetSubject, long compressedBytes) {
+        scriptsToUpload.add(new ScriptUpload(relativePath, targetSubject, compressedBytes));
+    }
+
+    public void addScriptToDelete(String relativePath, String targetSubject) {
+        scriptsToDelete.add(new JSONObject().element("path", relativePath).element("subject", targetSubject));
+    }
+
+    public void addTestToCreateOrUpdate(String relativePath, String targetSubject, String testName) {
+        testsToCreateOrUpdate.add(new JSONObject().element("path", relativePath).element("subject", targetSubject).element("name", testName));
+    }
+
+    /**
+     * The scripts under the root folder that are not among the local scripts are deleted, unless they exceed the
+     * threshold: which ones is only known from the catalog of LoadRunner Enterprise.
+     */
+    public void setOrphanReconciliation(String subjectRoot, int threshold, int localScripts) {
+        orphanReconciliation = new JSONObject()
+                .element("subjectRoot", subjectRoot)
+                .element("threshold", threshold)
+                .element("localScripts", localScripts);
+    }
+
+    public long getTotalCompressedBytes() {
+        long total = 0;
+        for (ScriptUpload scriptUpload : scriptsToUpload)
+            total += scriptUpload.compressedBytes;
+        return total;
+    }
+
+    public JSONObject toJSON() {
+        JSONArray uploads = new JSONArray();
+        for (ScriptUpload scriptUpload : scriptsToUpload)
+            uploads.add(new JSONObject()
+                    .element("path", scriptUpload.relativePath)
+                    .element("subject", scriptUpload.targetSubject)
+                    .element("compressedBytes", scriptUpload.compressedBytes));
+        return new JSONObject()
+                .element("target", target)
+                .element("fullSync", fullSync)
+                .element("foldersRequired", foldersRequired)
+                .element("scriptsToUpload", uploads)
+                .element("scriptsToDelete", scriptsToDelete)
+                .element("testsToCreateOrUpdate", testsToCreateOrUpdate)
+                .element("orphanReconciliation", orphanReconciliation == null ? new JSONObject(true) : orphanReconciliation)
+                .element("totalCompressedBytes", getTotalCompressedBytes());
+    }
+
+    public File writeTo(File folder) throws IOException {
+        if (!folder.isDirectory() && !folder.mkdirs())
+            throw new IOException("Cannot create folder " + folder);
+        File planFile = new File(folder, PLAN_FILE);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(planFile), StandardCharsets.UTF_8)) {
+            writer.write(toJSON().toString(2));
+        }
+        return planFile;
+    }
+
+    public void logSummary(TaskListener listener) {
+        log(listener, "Dry run summary (nothing was sent to LoadRunner Enterprise):", true);
+        if (fullSync)
+            log(listener, "----- No previous successful build was found: every script and test of the workspace is part of the synchronization.", false);
+        log(listener, "Test Plan folders required: %d (created only if missing)", false, foldersRequired.size());
+        log(listener, "Scripts to upload: %d (%.2f MB compressed)", false, scriptsToUpload.size(), getTotalCompressedBytes() / MEGABYTE);
+        log(listener, "Scripts to delete: %d", false, scriptsToDelete.size());
+        log(listener, "Tests to create or update: %d", false, testsToCreateOrUpdate.size());
+        if (orphanReconciliation != null)
+            log(listener, "Orphan scripts: the scripts under '%s' that are not among the %d scripts of the workspace are deleted (if at most %d%% of them)",
+                    false, orphanReconciliation.getString("subjectRoot"), orphanReconciliation.getInt("localScripts"),
+                    orphanReconciliation.getInt("threshold"));
+
+        List<ScriptUpload> largestScripts = new ArrayList<>(scriptsToUpload);
+        Collections.sort(largestScripts, (first, second) -> Long.compare(second.compressedBytes, first.compressedBytes));
+        if (!largestScripts.isEmpty()) {
+            log(listener, "Largest scripts:", false);
+            for (ScriptUpload scriptUpload : largestScripts.subList(0, Math.min(LARGEST_SCRIPTS_TO_LOG, largestScripts.size())))
+                log(listener, "%10.2f MB  %s", false, scriptUpload.compressedBytes / MEGABYTE, scriptUpload.relativePath);
+        }
+        log(listener, "", false);
+    }
+
+    private static final class ScriptUpload {
+        private final String relativePath;
+        private final String targetSubject;
+        private final long compressedBytes;
+
+        private ScriptUpload(String relativePath, String targetSubject, long compressedBytes) {
+            this.relativePath = relativePath;
+            this.targetSubject = targetSubject;
+            this.compressedBytes = compressedBytes;
+        }
+    }
+}
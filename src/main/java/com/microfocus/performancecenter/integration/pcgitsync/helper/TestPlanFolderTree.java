@@ -0,0 +1,141 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync.helper;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcTestPlanFolder;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcTestPlanFolders;
+
+import java.util.*;
+
+/**
+ * In-memory copy of the LoadRunner Enterprise Test Plan folder tree, kept as a trie of folder names.
+ * Folder names are compared case-insensitively, the same way LoadRunner Enterprise does.
+ */
+public class TestPlanFolderTree {
+
+    public static final String SUBJECT_ROOT = "Subject";
+    private static final String SEPARATOR = "\\";
+
+    private final Node root = new Node(SUBJECT_ROOT);
+
+    public static TestPlanFolderTree from(PcTestPlanFolders pcTestPlanFolders) {
+        TestPlanFolderTree tree = new TestPlanFolderTree();
+        if (pcTestPlanFolders != null && pcTestPlanFolders.getPcTestPlanFolderList() != null) {
+            for (PcTestPlanFolder pcTestPlanFolder : pcTestPlanFolders.getPcTestPlanFolderList()) {
+                tree.add(pcTestPlanFolder.getFullPath());
+            }
+        }
+        return tree;
+    }
+
+    // accepts "Subject\a\b", "a\b" or "a/b" and returns the folder names below the root
+    public static List<String> split(String folderPath) {
+        List<String> names = new ArrayList<>();
+        if (folderPath == null)
+            return names;
+        for (String name : folderPath.replace("/", SEPARATOR).split("\\\\")) {
+            if (!name.trim().isEmpty())
+                names.add(name.trim());
+        }
+        if (!names.isEmpty() && names.get(0).equalsIgnoreCase(SUBJECT_ROOT))
+            names.remove(0);
+        return names;
+    }
+
+    public void add(String folderPath) {
+        Node node = root;
+        for (String name : split(folderPath)) {
+            node = node.child(name, true);
+        }
+    }
+
+    public boolean contains(String folderPath) {
+        Node node = root;
+        for (String name : split(folderPath)) {
+            node = node.child(name, false);
+            if (node == null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Computes every folder that must exist for the given folder paths and is not yet in the tree.
+     * The result is grouped by depth (index 0 holds the folders directly under 'Subject'), so that a level can only be
+     * created once its parent level exists. Paths inside a level are sorted and unique.
+     */
+    public List<List<String>> getMissingFoldersByDepth(Collection<String> folderPaths) {
+        List<SortedMap<String, String>> levels = new ArrayList<>();
+        for (String folderPath : folderPaths) {
+            Node node = root;
+            String fullPath = SUBJECT_ROOT;
+            int depth = 0;
+            for (String name : split(folderPath)) {
+                fullPath = fullPath + SEPARATOR + name;
+                node = (node == null) ? null : node.child(name, false);
+                if (node == null) {
+                    while (levels.size() <= depth)
+                        levels.add(new TreeMap<String, String>());
+                    levels.get(depth).putIfAbsent(fullPath.toLowerCase(Locale.ROOT), fullPath);
+                }
+                depth++;
+            }
+        }
+        List<List<String>> missingFolders = new ArrayList<>();
+        for (SortedMap<String, String> level : levels) {
+            if (!level.isEmpty())
+                missingFolders.add(new ArrayList<>(level.values()));
+        }
+        return missingFolders;
+    }
+
+    public static String getParentPath(String folderFullPath) {
+        int index = folderFullPath.lastIndexOf(SEPARATOR);
+        return index > 0 ? folderFullPath.substring(0, index) : SUBJECT_ROOT;
+    }
+
+    public static String getName(String folderFullPath) {
+        int index = folderFullPath.lastIndexOf(SEPARATOR);
+        return index >= 0 ? folderFullPath.substring(index + 1) : folderFullPath;
+    }
+
+    private static final class Node {
+        private final String fullPath;
+        private final Map<String, Node> children = new TreeMap<>();
+
+        private Node(String fullPath) {
+            this.fullPath = fullPath;
+        }
+
+        private Node child(String childName, boolean create) {
+            String key = childName.toLowerCase(Locale.ROOT);
+            Node child = children.get(key);
+            if (child == null && create) {
+                child = new Node(fullPath + SEPARATOR + childName);
+                children.put(key, child);
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync.helper;
+
+import hudson.model.TaskListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
+
+/**
+ * Reports the progress of script uploads and summarizes them at the end of the sync.
+ * The REST client sends the archive in a single request without exposing the bytes written, so while an upload is in
+ * progress only its elapsed time is known: it is compared with the duration the uploads already completed during the
+ * sync suggest for the archive, an estimate that is labeled as such.
+ */
+public class UploadTelemetry implements AutoCloseable {
+
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final int SLOWEST_SCRIPTS_TO_LOG = 5;
+    private static final double MEGABYTE = 1024d * 1024d;
+
+    private final TaskListener listener;
+    private final ScheduledExecutorService heartbeat;
+    private final List<Upload> uploads = Collections.synchronizedList(new ArrayList<Upload>());
+
+    public UploadTelemetry(TaskListener listener) {
+        this.listener = listener;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LRE script upload progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Upload start(String scriptRelativePath, long uncompressedBytes, long compressedBytes) {
+        Upload upload = new Upload(scriptRelativePath, uncompressedBytes, compressedBytes);
+        upload.progress = heartbeat.scheduleAtFixedRate(upload::logProgress, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        return upload;
+    }
+
+    // bytes per millisecond of the successful uploads so far, 0 when there is none yet
+    private double getThroughput() {
+        long bytes = 0;
+        long millis = 0;
+        synchronized (uploads) {
+            for (Upload upload : uploads) {
+                if (upload.succeeded) {
+                    bytes += upload.compressedBytes;
+                    millis += upload.millis;
+                }
+            }
+        }
+        return millis > 0 ? (double) bytes / millis : 0;
+    }
+
+    public void logSummary() {
+        List<Upload> completed;
+        synchronized (uploads) {
+            completed = new ArrayList<>(uploads);
+        }
+        if (completed.isEmpty())
+            return;
+        long uncompressedBytes = 0;
+        long compressedBytes = 0;
+        int succeeded = 0;
+        for (Upload upload : completed) {
+            uncompressedBytes += upload.uncompressedBytes;
+            compressedBytes += upload.compressedBytes;
+            if (upload.succeeded)
+                succeeded++;
+        }
+        log(listener, "Upload summary: %d of %d script(s) uploaded, %.2f MB compressed from %.2f MB (ratio %.2f), aggregate throughput %.2f MB/s.",
+                true,
+                succeeded,
+                completed.size(),
+                compressedBytes / MEGABYTE,
+                uncompressedBytes / MEGABYTE,
+                uncompressedBytes > 0 ? (double) compressedBytes / uncompressedBytes : 0d,
+                getThroughput() * 1000d / MEGABYTE);
+        Collections.sort(completed, (first, second) -> Long.compare(second.millis, first.millis));
+        log(listener, "Slowest uploads:", false);
+        for (Upload upload : completed.subList(0, Math.min(SLOWEST_SCRIPTS_TO_LOG, completed.size()))) {
+            log(listener, "%8.1f s  %8.2f MB  %s%s", false,
+                    upload.millis / 1000d,
+                    upload.compressedBytes / MEGABYTE,
+                    upload.scriptRelativePath,
+                    upload.succeeded ? "" : " (failed)");
+        }
+        log(listener, "", false);
+    }
+
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+    }
+
+    public final class Upload implements AutoCloseable {
+        private final String scriptRelativePath;
+        private final long uncompressedBytes;
+        private final long compressedBytes;
+        private final long startTime = System.currentTimeMillis();
+        private volatile ScheduledFuture<?> progress;
+        private boolean succeeded;
+        private long millis;
+
+        private Upload(String scriptRelativePath, long uncompressedBytes, long compressedBytes) {
+            this.scriptRelativePath = scriptRelativePath;
+            this.uncompressedBytes = uncompressedBytes;
+            this.compressedBytes = compressedBytes;
+        }
+
+        public void succeeded() {
+            this.succeeded = true;
+        }
+
+        private void logProgress() {
+            long elapsed = System.currentTimeMillis() - startTime;
+            double throughput = getThroughput();
+            if (throughput <= 0) {
+                log(listener, "..... Uploading '%s': %.2f MB archive, %d s elapsed.", true,
+                        scriptRelativePath, compressedBytes / MEGABYTE, elapsed / 1000);
+                return;
+            }
+            long expected = (long) (compressedBytes / throughput);
+            log(listener, "..... Uploading '%s': %.2f MB archive, %d s elapsed (estimate from the previous uploads: %d s%s).", true,
+                    scriptRelativePath, compressedBytes / MEGABYTE, elapsed / 1000, expected / 1000,
+                    elapsed > expected ? ", exceeded" : "");
+        }
+
+        @Override
+        public void close() {
+            if (progress != null)
+                progress.cancel(false);
+            millis = Math.max(1, System.currentTimeMillis() - startTime);
+            uploads.add(this);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcRunEventLog;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcRunEventLogRecord;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcRunResponse;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.RunState;
+import com.microfocus.performancecenter.integration.common.helpers.result.model.junit.Testsuite;
+import com.microfocus.performancecenter.integration.common.helpers.result.model.junit.Testsuites;
+import com.microfocus.performancecenter.integration.common.helpers.utils.LinePrefixOutputStream;
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.util.StreamTaskListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
+
+/**
+ * Runs the additional tests of a test run step next to its main test, at most a given number of runs at a time.
+ * Each test logs in with its own session, a single thread monitors all their runs, and each run gives one testsuite
+ * of the results of the step.
+ */
+class MultiTestRunner implements AutoCloseable {
+
+    static final long MONITOR_INTERVAL_MILLIS = 5000L;
+    // a run staying in a state before collating or analyzing for that long was stopped from LoadRunner Enterprise
+    // or reached the end of its timeslot
+    private static final long STALLED_STATE_MILLIS = 60_000L;
+    private static final int MONITOR_STRIKES = 3;
+
+    private final ClientFactory clientFactory;
+    private final TestsuiteFactory testsuiteFactory;
+    private final TaskListener listener;
+    private final ExecutorService runExecutor;
+    // the runs of the additional tests at a time, one less while the main test runs
+    private final Semaphore runSlots;
+    private boolean mainRunEnded;
+    private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor();
+    private final Map<Integer, MonitoredRun> monitoredRuns = new ConcurrentHashMap<>();
+    private final List<Future<Testsuite>> results = new ArrayList<>();
+    private boolean collected;
+
+    /**
+     * @param maxConcurrentRuns the number of runs of the step at a time, the main test included.
+     */
+    MultiTestRunner(List<String> tests, int maxConcurrentRuns, ClientFactory clientFactory, TestsuiteFactory testsuiteFactory,
+                    TaskListener listener) {
+        this(tests, maxConcurrentRuns, clientFactory, testsuiteFactory, listener, MONITOR_INTERVAL_MILLIS);
+    }
+
+    MultiTestRunner(List<String> tests, int maxConcurrentRuns, ClientFactory clientFactory, TestsuiteFactory testsuiteFactory,
+                    TaskListener listener, long monitorIntervalMillis) {
+        this.clientFactory = clientFactory;
+        this.testsuiteFactory = testsuiteFactory;
+        this.listener = listener;
+        this.runExecutor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentRuns));
+        this.runSlots = new Semaphore(Math.max(1, maxConcurrentRuns) - 1, true);
+        monitor.scheduleWithFixedDelay(this::monitorRuns, monitorIntervalMillis, monitorIntervalMillis, TimeUnit.MILLISECONDS);
+        for (String test : tests)
+            results.add(runExecutor.submit(() -> runInSlot(test)));
+        log(listener, "%d additional test(s) run along with the main test, %d run(s) at a time.", true,
+                tests.size(), Math.max(1, maxConcurrentRuns));
+    }
+
+    // one test per line or separated by commas: a test ID or the path of a YAML or XML test in the workspace
+    static List<String> parseTests(String tests) {
+        List<String> parsed = new ArrayList<>();
+        if (tests == null)
+            return parsed;
+        for (String test : tests.split("[,\\r\\n]+")) {
+            if (!test.trim().isEmpty())
+                parsed.add(test.trim());
+        }
+        return parsed;
+    }
+
+    private Testsuite runInSlot(String test) throws Exception {
+        runSlots.acquire();
+        try {
+            return run(test);
+        } finally {
+            runSlots.release();
+        }
+    }
+
+    private Testsuite run(String test) throws Exception {
+        LinePrefixOutputStream output = new LinePrefixOutputStream(listener.getLogger(), "[" + test + "] ", StandardCharsets.UTF_8);
+        TaskListener testListener = new StreamTaskListener(output, StandardCharsets.UTF_8);
+        PcTestRunClient client = null;
+        try {
+            client = clientFactory.create(test, testListener);
+            int runId = client.startRun();
+            if (runId == 0)
+                return testsuiteFactory.create(test, 0, null, null, Messages.StartRunFailed(), "");
+            String testName = getTestName(client, test, testListener);
+            MonitoredRun monitoredRun = new MonitoredRun(client, runId, testListener);
+            monitoredRuns.put(runId, monitoredRun);
+            PcRunResponse response;
+            try {
+                response = monitoredRun.completion.get();
+            } finally {
+                monitoredRuns.remove(runId);
+                // the run is over: its admission and capacity go to the runs waiting for them
+                client.releaseRunResources();
+            }
+            if (response == null)
+                return testsuiteFactory.create(testName, runId, null, null, Messages.StoppingMonitoringOnRun(), "");
+            FilePath report = null;
+            String eventLog = "";
+            RunState runState = RunState.get(response.getRunState());
+            if (runState == RunState.FINISHED && client.getCompletionState() == RunState.FINISHED)
+                report = client.publishRunReport(runId, testsuiteFactory.getReportDirectory(runId));
+            else if (runState.ordinal() > RunState.FINISHED.ordinal())
+                eventLog = toString(client.getRunEventLog(runId));
+            return testsuiteFactory.create(testName, runId, response, report, "", eventLog);
+        } catch (IOException | PcException ex) {
+            log(testListener, "%s: %s", true, Messages.Error(), ex.getMessage());
+            return testsuiteFactory.create(test, 0, null, null, ex.getMessage(), "");
+        } finally {
+            if (client != null)
+                client.logout();
+            output.close();
+        }
+    }
+
+    private static String getTestName(PcTestRunClient client, String test, TaskListener testListener) {
+        try {
+            String testName = client.getTestName();
+            if (testName != null) {
+                log(testListener, "%s '%s'.", true, Messages.TestNameIs(), testName);
+                return testName;
+            }
+        } catch (PcException | IOException ex) {
+            // the entry of the list names the test in the results instead
+        }
+        return test;
+    }
+
+    private static String toString(PcRunEventLog eventLog) {
+        if (eventLog == null || eventLog.getRecordsList() == null)
+            return "";
+        String logFormat = "%-5s | %-7s | %-19s | %s\n";
+        StringBuilder eventLogStr = new StringBuilder("Event Log:\n\n" + String.format(logFormat, "ID", "TYPE", "TIME", "DESCRIPTION"));
+        for (PcRunEventLogRecord record : eventLog.getRecordsList())
+            eventLogStr.append(String.format(logFormat, record.getID(), record.getType(), record.getTime(), record.getDescription()));
+        return eventLogStr.toString();
+    }
+
+    // a single pass over all the runs being monitored, instead of one polling loop per run
+    private void monitorRuns() {
+        for (MonitoredRun monitoredRun : monitoredRuns.values()) {
+            try {
+                monitoredRun.poll();
+            } catch (RuntimeException ex) {
+                monitoredRun.completion.complete(monitoredRun.lastResponse);
+            }
+        }
+    }
+
+    // the slot of the main test goes to the additional tests once its run is over
+    private synchronized void releaseMainRunSlot() {
+        if (!mainRunEnded) {
+            mainRunEnded = true;
+            runSlots.release();
+        }
+    }
+
+    /**
+     * Waits for the additional tests and adds their testsuites to the results of the main test.
+     *
+     * @param testsuites the results of the main test, or null when it has none.
+     * @return the results of all the tests.
+     */
+    Testsuites collect(Testsuites testsuites) throws InterruptedException {
+        releaseMainRunSlot();
+        List<Testsuite> additionalTestsuites = new ArrayList<>();
+        for (Future<Testsuite> result : results) {
+            try {
+                additionalTestsuites.add(result.get());
+            } catch (ExecutionException ex) {
+                log(listener, "%s: %s", true, Messages.Error(), ex.getCause().getMessage());
+            }
+        }
+        collected = true;
+        Testsuites allTestsuites = testsuites == null ? new Testsuites() : testsuites;
+        allTestsuites.getTestsuite().addAll(additionalTestsuites);
+        return allTestsuites;
+    }
+
+    // the runs still going on when the step is aborted are stopped
+    @Override
+    public void close() {
+        if (!collected) {
+            for (MonitoredRun monitoredRun : monitoredRuns.values())
+                monitoredRun.client.stopRun(monitoredRun.runId);
+        }
+        runExecutor.shutdownNow();
+        monitor.shutdownNow();
+    }
+
+    interface ClientFactory {
+        /**
+         * @param test an entry of the list of additional tests.
+         */
+        PcTestRunClient create(String test, TaskListener listener) throws IOException, PcException;
+    }
+
+    interface TestsuiteFactory {
+        /**
+         * @param response the last state of the run, or null when the run did not start or could not be monitored.
+         */
+        Testsuite create(String testName, int runId, PcRunResponse response, FilePath report, String errorMessage, String eventLog);
+
+        String getReportDirectory(int runId);
+    }
+
+    private static final class MonitoredRun {
+        private final PcTestRunClient client;
+        private final int runId;
+        private final TaskListener listener;
+        private final CompletableFuture<PcRunResponse> completion = new CompletableFuture<>();
+        private PcRunResponse lastResponse;
+        private RunState lastState = RunState.UNDEFINED;
+        private long lastStateChange = System.currentTimeMillis();
+        private int strikes = MONITOR_STRIKES;
+
+        private MonitoredRun(PcTestRunClient client, int runId, TaskListener listener) {
+            this.client = client;
+            this.runId = runId;
+            this.listener = listener;
+        }
+
+        private void poll() {
+            try {
+                lastResponse = client.getRunData(runId);
+                strikes = MONITOR_STRIKES;
+            } catch (IOException | PcException ex) {
+                log(listener, "Cannot get response from PC about the state of RunID: %s %s time(s) consecutively", true,
+                        runId, MONITOR_STRIKES - strikes + 1);
+                if (--strikes == 0) {
+                    log(listener, "%s: %s", true, Messages.StoppingMonitoringOnRun(), runId);
+                    completion.complete(null);
+                }
+                return;
+            }
+            RunState currentState = RunState.get(lastResponse.getRunState());
+            if (lastState.ordinal() < currentState.ordinal()) {
+                lastState = currentState;
+                lastStateChange = System.currentTimeMillis();
+                log(listener, "RunID: %s - State = %s", true, runId, currentState.value());
+            }
+            if (lastState.ordinal() >= client.getCompletionState().ordinal()) {
+                completion.complete(lastResponse);
+            } else if ((lastState == RunState.BEFORE_COLLATING_RESULTS || lastState == RunState.BEFORE_CREATING_ANALYSIS_DATA)
+                    && System.currentTimeMillis() - lastStateChange > STALLED_STATE_MILLIS) {
+                log(listener, "Run ID: %s  - %s = %s", true, runId, Messages.StoppedFromPC(), lastState.value());
+                completion.complete(lastResponse);
+            }
+        }
+    }
+}
@@ -39,7 +39,12 @@ import com.microfocus.performancecenter.integration.common.helpers.result.model.
 import com.microfocus.performancecenter.integration.common.helpers.result.model.junit.*;
 import com.microfocus.performancecenter.integration.common.helpers.utils.BuildParametersAndEnvironmentVariables;
 import com.microfocus.performancecenter.integration.configuresystem.ConfigureSystemSection;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.BackgroundSyncRegistry;
 import com.microfocus.performancecenter.integration.pctestrun.helper.AdditionalParametersAction;
+import com.microfocus.performancecenter.integration.pctestrun.helper.CapacityLedger;
+import com.microfocus.performancecenter.integration.pctestrun.helper.PcTarget;
+import com.microfocus.performancecenter.integration.pctestrun.helper.RunAdmissionQueue;
+import com.microfocus.performancecenter.integration.pctestrun.helper.TimeslotReservationRegistry;
 import com.thoughtworks.xstream.XStream;
 import hudson.*;
 import hudson.console.HyperlinkNote;
@@ -66,12 +71,14 @@ import javax.xml.bind.Marshaller;
 import java.beans.IntrospectionException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.PrintStream;
 import java.io.StringWriter;
 import java.lang.reflect.Method;
 import java.text.Format;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -97,6 +104,7 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
     public static final String ERROR = "Error";
     private static final String artifactsDirectoryName = "archive";
     private static final String RUNID_BUILD_VARIABLE = "PC_RUN_ID";
+    private static final String TARGET_BUILD_VARIABLE = "PC_TARGET";
     public static UsernamePasswordCredentials usernamePCPasswordCredentials;
     public static UsernamePasswordCredentials usernamePCPasswordCredentialsForProxy;
     private transient static Run<?, ?> _run;
@@ -129,6 +137,12 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
     private String trendReportWaitTime;
     private boolean authenticateWithToken;
     private boolean searchTimeslot;
+    private String timeslotScheduling;
+    private String maxTimeslotWait;
+    private String additionalTests;
+    private String maxConcurrentRuns;
+    private String runPriority;
+    private String alternativeTargets;
     private int runId;
     private String testName;
     private FilePath pcReportFile;
@@ -167,7 +181,13 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
             String retryOccurrences,
             String trendReportWaitTime,
             boolean authenticateWithToken,
-            boolean searchTimeslot) {
+            boolean searchTimeslot,
+            String timeslotScheduling,
+            String maxTimeslotWait,
+            String additionalTests,
+            String maxConcurrentRuns,
+            String runPriority,
+            String alternativeTargets) {
 
         this.serverAndPort = serverAndPort;
         this.pcServerName = pcServerName;
@@ -196,15 +216,36 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
         this.trendReportWaitTime = (trendReportWaitTime != null && !retryDelay.isEmpty() && isInteger(trendReportWaitTime)) ? trendReportWaitTime : "0";
         this.authenticateWithToken = authenticateWithToken;
         this.searchTimeslot = searchTimeslot;
+        this.timeslotScheduling = (timeslotScheduling == null || timeslotScheduling.isEmpty()) ? PcTestRunModel.START_NOW : timeslotScheduling;
+        this.maxTimeslotWait = (PcTestRunModel.START_NOW.equals(this.timeslotScheduling) || maxTimeslotWait == null || maxTimeslotWait.isEmpty())
+                ? Integer.toString(PcTestRunModel.DEFAULT_MAX_TIMESLOT_WAIT) : maxTimeslotWait;
+        this.additionalTests = additionalTests == null ? "" : additionalTests;
+        this.maxConcurrentRuns = (maxConcurrentRuns == null || !isInteger(maxConcurrentRuns) || Integer.parseInt(maxConcurrentRuns) < 1)
+                ? "1" : maxConcurrentRuns;
+        this.runPriority = (runPriority == null || !isInteger(runPriority)) ? "0" : runPriority;
+        this.alternativeTargets = alternativeTargets == null ? "" : alternativeTargets;
         configureSystemSection = ConfigureSystemSection.get();
     }
 
     public static UsernamePasswordCredentials getCredentialsId(String credentialsId) {
-        if (credentialsId != null && _run != null)
-            return getCredentialsById(credentialsId, _run, logger);
+        return getCredentialsId(credentialsId, null);
+    }
+
+    /**
+     * @param run the build to resolve the credentials from, or null for the build being run.
+     */
+    static UsernamePasswordCredentials getCredentialsId(String credentialsId, Run<?, ?> run) {
+        Run<?, ?> credentialsRun = run != null ? run : _run;
+        if (credentialsId != null && credentialsRun != null)
+            return getCredentialsById(credentialsId, credentialsRun, logger);
         return null;
     }
 
+    // the credentials of the clients are resolved from the build being run
+    static void setRun(Run<?, ?> run) {
+        _run = run;
+    }
+
     public static UsernamePasswordCredentials getCredentialsProxyId(String credentialsProxyId) {
         if (credentialsProxyId != null && _run != null)
             return getCredentialsById(credentialsProxyId, _run, logger);
@@ -339,40 +380,46 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
 
     //pcTestRunModel is intialized here.
     public PcTestRunModel getPcTestRunModel() {
-        if (pcTestRunModel == null) {
-            pcTestRunModel =
-                    new PcTestRunModel(
-                            serverAndPort.trim(),
-                            pcServerName.trim(),
-                            credentialsId,
-                            almDomain.trim(),
-                            almProject.trim(),
-                            testToRun,
-                            testId.trim(),
-                            testContentToCreate,
-                            autoTestInstanceID,
-                            testInstanceId.trim(),
-                            timeslotDurationHours.trim(),
-                            timeslotDurationMinutes.trim(),
-                            postRunAction,
-                            vudsMode,
-                            description,
-                            addRunToTrendReport,
-                            trendReportId,
-                            HTTPSProtocol,
-                            proxyOutURL,
-                            credentialsProxyId,
-                            retry,
-                            retryDelay,
-                            retryOccurrences,
-                            trendReportWaitTime,
-                            authenticateWithToken,
-                            searchTimeslot
-                    );
-        }
+        if (pcTestRunModel == null)
+            pcTestRunModel = createPcTestRunModel(testToRun, testId.trim(), testContentToCreate, autoTestInstanceID,
+                    testInstanceId.trim(), addRunToTrendReport);
         return pcTestRunModel;
     }
 
+    private PcTestRunModel createPcTestRunModel(String testToRun, String testId, String testContentToCreate,
+                                                String autoTestInstanceID, String testInstanceId, String addRunToTrendReport) {
+        return new PcTestRunModel(
+                serverAndPort.trim(),
+                pcServerName.trim(),
+                credentialsId,
+                almDomain.trim(),
+                almProject.trim(),
+                testToRun,
+                testId,
+                testContentToCreate,
+                autoTestInstanceID,
+                testInstanceId,
+                timeslotDurationHours.trim(),
+                timeslotDurationMinutes.trim(),
+                postRunAction,
+                vudsMode,
+                description,
+                addRunToTrendReport,
+                trendReportId,
+                HTTPSProtocol,
+                proxyOutURL,
+                credentialsProxyId,
+                retry,
+                retryDelay,
+                retryOccurrences,
+                trendReportWaitTime,
+                authenticateWithToken,
+                searchTimeslot,
+                timeslotScheduling,
+                maxTimeslotWait
+        );
+    }
+
     public String getRunResultsFileName() {
 
         return junitResultsFileName;
@@ -393,6 +440,7 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
             throws InterruptedException {
         _run = build;
         this.listener = listener;
+        MultiTestRunner additionalRuns = null;
         try {
             try {
                 String version = ConfigurationService.getVersion();
@@ -408,7 +456,14 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
             if (!beforeRun(pcTestRunClient, listener))
                 return null;
 
-            return run(pcTestRunClient, build, listener);
+            additionalRuns = startAdditionalTests(pcTestRunClient, build, listener);
+            Testsuites testsuites = run(pcTestRunClient, build, listener);
+            if (additionalRuns == null)
+                return testsuites;
+            // the additional tests may wait for the admission or the capacity held by the main test
+            pcTestRunClient.releaseRunResources();
+            return additionalRuns.collect(testsuites != null ? testsuites
+                    : newMainTestErrorTestsuites(pcTestRunClient, build, Messages.StartRunFailed()));
 
         } catch (InterruptedException e) {
             build.setResult(Result.ABORTED);
@@ -416,12 +471,112 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
             throw e;
         } catch (Exception e) {
             log(listener, "%s: %s", true, Messages.Error(), e.getMessage());
+            // the additional tests end with the step, even when the main test fails
+            if (additionalRuns != null) {
+                pcTestRunClient.releaseRunResources();
+                return additionalRuns.collect(newMainTestErrorTestsuites(pcTestRunClient, build, e.getMessage()));
+            }
         } finally {
+            if (additionalRuns != null)
+                additionalRuns.close();
             pcTestRunClient.logout();
         }
         return null;
     }
 
+    private MultiTestRunner startAdditionalTests(PcTestRunClient pcTestRunClient, Run<?, ?> build, TaskListener listener) {
+        List<String> tests = MultiTestRunner.parseTests(additionalTests);
+        if (tests.isEmpty())
+            return null;
+        return new MultiTestRunner(tests, Integer.parseInt(getMaxConcurrentRuns()),
+                (test, testListener) -> createAdditionalTestClient(pcTestRunClient, test, build, testListener),
+                new MultiTestRunner.TestsuiteFactory() {
+                    @Override
+                    public Testsuite create(String testName, int runId, PcRunResponse response, FilePath report,
+                                            String errorMessage, String eventLog) {
+                        return newRunTestsuite(build, testName, runId, response, report, errorMessage, eventLog);
+                    }
+
+                    @Override
+                    public String getReportDirectory(int runId) {
+                        return getReportDirectory(build) + runId;
+                    }
+                },
+                listener);
+    }
+
+    // an additional test is an existing test ID or a YAML or XML test of the workspace, run with the settings of the main test.
+    // It logs in with its own session, as the REST proxy of the main test is already used by the thread of the main run.
+    private PcTestRunClient createAdditionalTestClient(PcTestRunClient pcTestRunClient, String test, Run<?, ?> build, TaskListener testListener)
+            throws IOException, PcException {
+        PcTestRunModel model;
+        String testToCreate = "";
+        String testName = "";
+        String testFolderPath = "";
+        String fileExtension = "";
+        try {
+            if (isInteger(test)) {
+                model = createPcTestRunModel("EXISTING_TEST", test, "", "AUTO", "", "NO_TREND");
+            } else if (verifyStringIsPath(test)) {
+                model = createPcTestRunModel("CREATE_TEST", "", test, "AUTO", "", "NO_TREND");
+                testName = fileNameWithoutExtension(test);
+                testFolderPath = filePath(test);
+                testToCreate = fileContenToString(test);
+                fileExtension = retreiveFileExtension(test);
+            } else {
+                throw new PcException(String.format("'%s' is neither a test ID nor a test file of the workspace.", test));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
+        }
+        model.setBuildParameters(getPcTestRunModel().getBuildParameters());
+        // the additional tests run on the target serving the main test
+        PcTestRunModel servingModel = pcTestRunClient.getModel();
+        if (servingModel != getPcTestRunModel())
+            model = model.forTarget(servingModel.getPcServerName(true), servingModel.getAlmDomain(true),
+                    servingModel.getAlmProject(true), model.getTestId());
+        PcTestRunClient additionalTestClient = new PcTestRunClient(model, testToCreate, testName, testFolderPath, fileExtension,
+                testListener, configureSystemSection, build);
+        if (!additionalTestClient.login(testListener))
+            throw new PcException(Messages.LoginFailed());
+        additionalTestClient.setRunPriority(Integer.parseInt(getRunPriority()));
+        return additionalTestClient;
+    }
+
+    // the main test without results still gives a testsuite, of its error, next to those of the additional tests
+    private Testsuites newMainTestErrorTestsuites(PcTestRunClient pcTestRunClient, Run<?, ?> build, String errorMessage) {
+        Testsuites testsuites = new Testsuites();
+        String testName = String.format("TestId_%s", pcTestRunClient.getModel().getTestId(true));
+        testsuites.getTestsuite().add(newRunTestsuite(build, testName, 0, null, null, errorMessage, ""));
+        return testsuites;
+    }
+
+    private Testsuite newRunTestsuite(Run<?, ?> build, String testName, int runId, PcRunResponse response,
+                                                FilePath report, String errorMessage, String eventLog) {
+        Testsuite testSuite = new Testsuite();
+        Testcase testCase = new Testcase();
+        testCase.setClassname("Performance Test.Load Test");
+        if (response == null) {
+            testCase.setName(testName);
+            testCase.setTime("0");
+            setError(testCase, errorMessage, eventLog);
+            testSuite.setName("Performance Test: " + testName + (runId > 0 ? ", Run ID: " + runId : ""));
+        } else {
+            testCase.setName(testName + "(ID:" + response.getTestID() + ")");
+            testCase.setTime(String.valueOf(response.getDuration() * 60));
+            if (report != null) {
+                String viewUrl = String.format(getArtifactsUrlPattern(build, false) + "%s/%s", runId, pcReportFileName);
+                testCase.getSystemOut().add(String.format("%s: %s\n\n%s:\n%s", Messages.LoadTestRunID(), runId,
+                        Messages.ViewAnalysisReport(), getPcTestRunModel().getServerAndPort() + "/" + build.getUrl() + viewUrl));
+            }
+            updateTestStatus(testCase, response, errorMessage, eventLog);
+            testSuite.setName("Performance Test ID: " + response.getTestID() + ", Run ID: " + response.getID());
+        }
+        testSuite.getTestcase().add(testCase);
+        return testSuite;
+    }
+
     private Testsuites run(PcTestRunClient pcTestRunClient, Run<?, ?> build, TaskListener listener)
             throws InterruptedException, ClientProtocolException,
             IOException, PcException {
@@ -469,17 +624,17 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
                 pcNVInsgithsFile = pcTestRunClient.publishRunNVInsightsReport(runId, getNVInsightsReportDirectory(build));
 
                 // Adding the trend report section if ID has been set or if the Associated Trend report is selected.
-                if (((("USE_ID").equals(getPcTestRunModel().getAddRunToTrendReport()) && getPcTestRunModel().getTrendReportId(true) != null) || ("ASSOCIATED").equals(getPcTestRunModel().getAddRunToTrendReport())) && RunState.get(response.getRunState()) != RUN_FAILURE) {
+                if (((("USE_ID").equals(pcTestRunClient.getModel().getAddRunToTrendReport()) && pcTestRunClient.getModel().getTrendReportId(true) != null) || ("ASSOCIATED").equals(pcTestRunClient.getModel().getAddRunToTrendReport())) && RunState.get(response.getRunState()) != RUN_FAILURE) {
                     Thread.sleep(5000);
-                    pcTestRunClient.addRunToTrendReport(this.runId, getPcTestRunModel().getTrendReportId(true));
-                    pcTestRunClient.waitForRunToPublishOnTrendReport(this.runId, getPcTestRunModel().getTrendReportId(true));
+                    pcTestRunClient.addRunToTrendReport(this.runId, pcTestRunClient.getModel().getTrendReportId(true));
+                    pcTestRunClient.waitForRunToPublishOnTrendReport(this.runId, pcTestRunClient.getModel().getTrendReportId(true));
                     int waitTimeInSecondsBeforeRequestingTrendReport = getWaitTimeInSecondsBeforeRequestingTrendReport();
                     if (waitTimeInSecondsBeforeRequestingTrendReport > 0) {
                         String waitTimeBeforeRequestingTrendReportMessage = String.format("Waiting %s seconds before downloading trend report", waitTimeInSecondsBeforeRequestingTrendReport);
                         log(listener, "%s", true, waitTimeBeforeRequestingTrendReportMessage);
                         Thread.sleep(waitTimeInSecondsBeforeRequestingTrendReport * 1000);
                     }
-                    pcTestRunClient.downloadTrendReportAsPdf(getPcTestRunModel().getTrendReportId(true), getTrendReportsDirectory(build));
+                    pcTestRunClient.downloadTrendReportAsPdf(pcTestRunClient.getModel().getTrendReportId(true), getTrendReportsDirectory(build));
                     trendReportReady = true;
                 }
 
@@ -496,7 +651,7 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
         Testsuites ret = new Testsuites();
         parsePcRunResponse(ret, response, build, errorMessage, eventLogString);
         try {
-            parsePcTrendResponse(ret, build, pcTestRunClient, trendReportReady, getPcTestRunModel().getTrendReportId(true), runId);
+            parsePcTrendResponse(ret, build, pcTestRunClient, trendReportReady, pcTestRunClient.getModel().getTrendReportId(true), runId);
         } catch (IntrospectionException | NoSuchMethodException e) {
             logStackTrace(listener, configureSystemSection, e);
         }
@@ -522,7 +677,50 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
     }
 
     private boolean beforeRun(PcTestRunClient pcTestRunClient, TaskListener listener) {
-        return validatePcForm(listener) && pcTestRunClient.login(listener);
+        return validatePcForm(listener) && (pcTestRunClient.isLoggedIn() || pcTestRunClient.login(listener));
+    }
+
+    // the run goes to the target where the builds of this Jenkins have the fewest runs under way, the primary target
+    // first between equals; a target that cannot be logged in to is skipped
+    private PcTestRunClient selectTarget(PcTestRunClient primaryClient, List<PcTarget> alternativeTargets, String testToCreate,
+                                         String testName, String testFolderPath, String fileExtension, Run<?, ?> build,
+                                         TaskListener listener) {
+        setRun(build);
+        List<PcTestRunClient> candidates = new ArrayList<>();
+        candidates.add(primaryClient);
+        for (PcTarget target : alternativeTargets) {
+            PcTestRunModel model = getPcTestRunModel().forTarget(target.getPcServerName(), target.getAlmDomain(),
+                    target.getAlmProject(), target.getTestId());
+            candidates.add(new PcTestRunClient(model, testToCreate, testName, testFolderPath, fileExtension, listener, configureSystemSection));
+        }
+        candidates.sort(Comparator.comparingInt(PcTestRunBuilder::getActiveRuns).thenComparingInt(PcTestRunBuilder::getHeldVusers));
+        for (PcTestRunClient candidate : candidates) {
+            String target = getTarget(candidate.getModel());
+            log(listener, "Target %s: %d run(s) of this Jenkins active.", true, target, getActiveRuns(candidate));
+            if (candidate.login(listener)) {
+                List<ParameterValue> parameters = new ArrayList<>();
+                parameters.add(new StringParameterValue(TARGET_BUILD_VARIABLE, target));
+                build.addAction(new AdditionalParametersAction(parameters));
+                log(listener, "%s: %s = %s", true, Messages.SetEnvironmentVariable(), TARGET_BUILD_VARIABLE, target);
+                return candidate;
+            }
+            log(listener, "Target %s cannot be reached: failing over to the next target.", true, target);
+        }
+        return primaryClient;
+    }
+
+    private static String getTarget(PcTestRunModel model) {
+        return new PcTarget(model.getPcServerName(true), model.getAlmDomain(true), model.getAlmProject(true), null).toString();
+    }
+
+    private static int getActiveRuns(PcTestRunClient client) {
+        PcTestRunModel model = client.getModel();
+        return RunAdmissionQueue.shared().getActive(
+                RunAdmissionQueue.key(model.getPcServerName(true), model.getAlmDomain(true), model.getAlmProject(true)));
+    }
+
+    private static int getHeldVusers(PcTestRunClient client) {
+        return CapacityLedger.shared().getHeld(CapacityLedger.key(client.getModel().getPcServerName(true))).getVusers();
     }
 
     private String getReportDirectory(Run<?, ?> build) {
@@ -662,8 +860,8 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
 
         if (trendReportReady) {
             String reportUrlTemp = trendReportStructure.replaceFirst("%s/", "") + "/trendReport%s.pdf";
-            String reportUrl = String.format(reportUrlTemp, artifactsResourceName, getPcTestRunModel().getTrendReportId(true));
-            pcTestRunClient.publishTrendReport(reportUrl, getPcTestRunModel().getTrendReportId(true));
+            String reportUrl = String.format(reportUrlTemp, artifactsResourceName, TrendReportID);
+            pcTestRunClient.publishTrendReport(reportUrl, TrendReportID);
 
             // Updating all CSV files for plot plugin
             // this helps to show the transaction of each result
@@ -734,7 +932,7 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
         };
 
         for (TriTrendReportTypes triTrendReportType : triTrendReportTypes) {
-            saveFileToWorkspacePath(pcTestRunClient, getPcTestRunModel().getTrendReportId(true), runId, triTrendReportType.getDataType(), triTrendReportType.getPctType(), triTrendReportType.getMeasurement());
+            saveFileToWorkspacePath(pcTestRunClient, pcTestRunClient.getModel().getTrendReportId(true), runId, triTrendReportType.getDataType(), triTrendReportType.getPctType(), triTrendReportType.getMeasurement());
         }
 
     }
@@ -967,6 +1165,14 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
         }
 
         PcTestRunClient pcTestRunClient = new PcTestRunClient(getPcTestRunModel(), testToCreate, testName, testFolderPath, fileExtension, listener, configureSystemSection);
+        List<PcTarget> targets = PcTarget.parse(getAlternativeTargets(), new PcTarget(getPcTestRunModel().getPcServerName(true),
+                getPcTestRunModel().getAlmDomain(true), getPcTestRunModel().getAlmProject(true), getPcTestRunModel().getTestId(true)));
+        if (!targets.isEmpty())
+            pcTestRunClient = selectTarget(pcTestRunClient, targets, testToCreate, testName, testFolderPath, fileExtension, build, listener);
+        // the timeslot reserved earlier in the build belongs to the primary target
+        if (pcTestRunClient.getModel() == getPcTestRunModel())
+            pcTestRunClient.setTimeslotReservation(TimeslotReservationRegistry.await(build, listener));
+        pcTestRunClient.setRunPriority(Integer.parseInt(getRunPriority()));
         Testsuites testsuites = execute(listener, pcTestRunClient, build);
 
 //        // Create Trend Report
@@ -980,6 +1186,8 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
         FilePath resultsFilePath = workspace.child(getJunitResultsFileName());
         resultStatus = createRunResults(resultsFilePath, testsuites);
         provideStepResultStatus(resultStatus, build);
+        // a Git sync step of this build may still be uploading what the test did not need
+        BackgroundSyncRegistry.await(build, listener);
 
         if (!Result.SUCCESS.equals(resultStatus) && !Result.FAILURE.equals(resultStatus)) {
             return;
@@ -1085,6 +1293,31 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
         return getPcTestRunModel().isSearchTimeslot();
     }
 
+    public String getTimeslotScheduling() {
+        return getPcTestRunModel().getTimeslotScheduling();
+    }
+
+    public String getMaxTimeslotWait() {
+        return getPcTestRunModel().getMaxTimeslotWait();
+    }
+
+    public String getAdditionalTests() {
+        return additionalTests == null ? "" : additionalTests;
+    }
+
+    // jobs saved before the option existed run a single test
+    public String getMaxConcurrentRuns() {
+        return maxConcurrentRuns == null ? "1" : maxConcurrentRuns;
+    }
+
+    public String getRunPriority() {
+        return runPriority == null ? "0" : runPriority;
+    }
+
+    public String getAlternativeTargets() {
+        return alternativeTargets == null ? "" : alternativeTargets;
+    }
+
     public String getRetry() {
         return getPcTestRunModel().getRetry();
     }
@@ -1183,7 +1416,7 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
 
         public FormValidation doCheckRetryDelay(@QueryParameter String value) {
 
-            return validateHigherThanInt(value, "Delay between attempts (in minutes)", 0, true);
+            return validateHigherThanInt(value, "Maximum delay between attempts (in minutes)", 0, true);
         }
 
         public FormValidation doCheckRetryOccurrences(@QueryParameter String value) {
@@ -1191,6 +1424,21 @@ public class PcTestRunBuilder extends Builder implements SimpleBuildStep {
             return validateHigherThanInt(value, "Number of attempts", 0, true);
         }
 
+        public FormValidation doCheckRunPriority(@QueryParameter String value) {
+
+            return validateHigherThanInt(value, "Run priority", 0, false);
+        }
+
+        public FormValidation doCheckMaxConcurrentRuns(@QueryParameter String value) {
+
+            return validateHigherThanInt(value, "Maximum concurrent runs", 0, true);
+        }
+
+        public FormValidation doCheckMaxTimeslotWait(@QueryParameter String value) {
+
+            return validateHigherThanInt(value, "Maximum wait for a timeslot (in minutes)", 0, true);
+        }
+
         public FormValidation doCheckTrendReportWaitTime(@QueryParameter String value) {
             return validateHigherThanInt(value, "Wait before downloading trend report", 0, false);
         }
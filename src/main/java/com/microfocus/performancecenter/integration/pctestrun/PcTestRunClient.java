@@ -33,9 +33,18 @@ import com.microfocus.adm.performancecenter.plugins.common.pcentities.*;
 import com.microfocus.adm.performancecenter.plugins.common.pcentities.pcsubentities.test.Test;
 import com.microfocus.adm.performancecenter.plugins.common.rest.PcRestProxy;
 import com.microfocus.performancecenter.integration.common.helpers.constants.PcTestRunConstants;
+import com.microfocus.performancecenter.integration.common.helpers.utils.ContentDigest;
 import com.microfocus.performancecenter.integration.configuresystem.ConfigureSystemSection;
+import com.microfocus.performancecenter.integration.pctestrun.helper.CapacityLedger;
+import com.microfocus.performancecenter.integration.pctestrun.helper.CapacityRequirement;
+import com.microfocus.performancecenter.integration.pctestrun.helper.PcEntityCache;
+import com.microfocus.performancecenter.integration.pctestrun.helper.RunAdmissionQueue;
+import com.microfocus.performancecenter.integration.pctestrun.helper.StartRunRetryScheduler;
+import com.microfocus.performancecenter.integration.pctestrun.helper.TestContentDigestStore;
+import com.microfocus.performancecenter.integration.pctestrun.helper.TimeslotReservation;
 import hudson.FilePath;
 import hudson.console.HyperlinkNote;
+import hudson.model.Run;
 import hudson.model.TaskListener;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.client.ClientProtocolException;
@@ -44,11 +53,17 @@ import java.beans.IntrospectionException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -56,6 +71,7 @@ import static com.microfocus.performancecenter.integration.common.helpers.utils.
 import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.logStackTrace;
 
 public class PcTestRunClient {
+    private static final int PRE_FLIGHT_THREADS = 3;
     private PcTestRunModel model;
     private String testToCreate;
     private String testName;
@@ -67,11 +83,28 @@ public class PcTestRunClient {
     private ConfigureSystemSection configureSystemSection;
     private int testInstanceID = 0;
     private int timeslotId = -1;
+    private TimeslotReservation timeslotReservation;
+    private CapacityLedger.Lease capacityLease;
+    private RunAdmissionQueue.Ticket admissionTicket;
+    private int runPriority;
+    // the build the credentials are resolved from, or null for the build of the test run step being performed
+    private Run<?, ?> run;
+    private final PcEntityCache entityCache = new PcEntityCache();
 
     public PcTestRunClient(PcTestRunModel pcTestRunModel, String testToCreate,
                            String testName, String testFolderPath, String fileExtension,
                            TaskListener listener, ConfigureSystemSection configureSystemSection) {
+        this(pcTestRunModel, testToCreate, testName, testFolderPath, fileExtension, listener, configureSystemSection, null);
+    }
+
+    /**
+     * @param run the build the credentials are resolved from, for a client used outside of the thread of the build.
+     */
+    public PcTestRunClient(PcTestRunModel pcTestRunModel, String testToCreate,
+                           String testName, String testFolderPath, String fileExtension,
+                           TaskListener listener, ConfigureSystemSection configureSystemSection, Run<?, ?> run) {
         try {
+            this.run = run;
             this.listener = listener;
             this.model = pcTestRunModel;
             this.testToCreate = testToCreate;
@@ -80,7 +113,7 @@ public class PcTestRunClient {
             this.fileExtension = fileExtension;
             this.configureSystemSection = configureSystemSection;
             String credentialsProxyId = model.getCredentialsProxyId(true);
-            UsernamePasswordCredentials usernamePCPasswordCredentialsForProxy = PcTestRunBuilder.getCredentialsId(credentialsProxyId);
+            UsernamePasswordCredentials usernamePCPasswordCredentialsForProxy = PcTestRunBuilder.getCredentialsId(credentialsProxyId, run);
             String proxyOutUser = (usernamePCPasswordCredentialsForProxy == null || model.getProxyOutURL(true).isEmpty()) ? "" : usernamePCPasswordCredentialsForProxy.getUsername();
             String proxyOutPassword = (usernamePCPasswordCredentialsForProxy == null || model.getProxyOutURL(true).isEmpty()) ? "" : usernamePCPasswordCredentialsForProxy.getPassword().getPlainText();
             if (model.getProxyOutURL(true) != null && !model.getProxyOutURL(true).isEmpty()) {
@@ -107,7 +140,7 @@ public class PcTestRunClient {
         try {
             this.listener = listener;
             String credentialsId = model.getCredentialsId(true);
-            UsernamePasswordCredentials usernamePCPasswordCredentials = PcTestRunBuilder.getCredentialsId(credentialsId);
+            UsernamePasswordCredentials usernamePCPasswordCredentials = PcTestRunBuilder.getCredentialsId(credentialsId, run);
             log(listener, "", true);
             if (usernamePCPasswordCredentials != null) {
                 if (model.getCredentialsId().startsWith("$"))
@@ -132,7 +165,88 @@ public class PcTestRunClient {
         return loggedIn;
     }
 
+    public PcTestRunModel getModel() {
+        return model;
+    }
+
+    /**
+     * @param timeslotReservation made earlier in the build, used instead of searching the timeslot when starting the run.
+     */
+    public void setTimeslotReservation(TimeslotReservation timeslotReservation) {
+        this.timeslotReservation = timeslotReservation;
+    }
+
+    /**
+     * Searches an open timeslot for the test and resolves its test instance, so that the run can start right away.
+     */
+    public TimeslotReservation reserveTimeslot() throws IOException, PcException {
+        int testID = Integer.parseInt(model.getTestId(true));
+        getOpenedTimeslot(testID);
+        int timeslotTestInstanceID = testInstanceID;
+        if (testInstanceID <= 0)
+            getCorrectTestInstanceID(testID);
+        return new TimeslotReservation(getTimeslotReservationKey(model, testID), testID, timeslotId, timeslotTestInstanceID, testInstanceID);
+    }
+
+    // the duration is left out: the reservation step has none, and an opened timeslot is found whatever its duration
+    static String getTimeslotReservationKey(PcTestRunModel model, int testID) {
+        return TimeslotReservation.key(model.getPcServerName(true), model.getAlmDomain(true), model.getAlmProject(true),
+                testID, model.getPostRunAction().getValue(), model.isSearchTimeslot());
+    }
+
+    public void setRunPriority(int runPriority) {
+        this.runPriority = runPriority;
+    }
+
     public int startRun() throws NumberFormatException, ClientProtocolException, PcException, IOException {
+        boolean started = false;
+        try {
+            waitForAdmission();
+            acquireCapacity();
+            int runId = startTestRun();
+            started = runId > 0;
+            return runId;
+        } finally {
+            if (!started)
+                releaseRunResources();
+        }
+    }
+
+    /**
+     * Gives back the admission and the capacity held for the run, once it is over or failed to start: the runs waiting
+     * for them, the additional tests of the step included, can start.
+     */
+    public void releaseRunResources() {
+        releaseCapacity();
+        releaseAdmission();
+    }
+
+    // the number of runs of this Jenkins admitted at a time in the project, or 0 without limit
+    int getMaxActiveRunsPerProject() {
+        return configureSystemSection == null ? 0 : configureSystemSection.getMaxActiveRunsPerProject();
+    }
+
+    // the runs of this Jenkins over the limit of the project wait in line instead of competing for its capacity
+    private void waitForAdmission() throws InterruptedIOException {
+        // without a limit the run is admitted right away, and still counted for choosing between targets
+        int limit = getMaxActiveRunsPerProject();
+        String key = RunAdmissionQueue.key(model.getPcServerName(true), model.getAlmDomain(true), model.getAlmProject(true));
+        try {
+            admissionTicket = RunAdmissionQueue.shared().admit(key, limit, runPriority, listener);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
+        }
+    }
+
+    public void releaseAdmission() {
+        if (admissionTicket != null) {
+            admissionTicket.close();
+            admissionTicket = null;
+        }
+    }
+
+    private int startTestRun() throws NumberFormatException, ClientProtocolException, PcException, IOException {
 
         int testID;
         log(listener, "", true);
@@ -149,16 +263,11 @@ public class PcTestRunClient {
             log(listener, "Running YAML test: Test ID %s, Name: %s, Path: %s", true, test.getID(), test.getName(), test.getTestFolderPath());
         }
         log(listener, "", true);
-        getOpenedTimeslot(testID);
-        if (testInstanceID <= 0)
-            getCorrectTestInstanceID(testID);
-        else
-            log(listener, "Testinstance already found in the timeslot.", true);
-        setCorrectTrendReportID();
+        prepareRun(testID);
         printInitMessage();
-        PcRunResponse response = null;
+        Exception startFailure;
         try {
-            response = restProxy.startRun(testID,
+            PcRunResponse response = restProxy.startRun(testID,
                     testInstanceID,
                     new TimeslotDuration(model.getTimeslotDurationHours(true), model.getTimeslotDurationMinutes(true)),
                     model.getPostRunAction().getValue(),
@@ -170,75 +279,149 @@ public class PcTestRunClient {
         } catch (NumberFormatException | ClientProtocolException | PcException ex) {
             log(listener, "%s. %s: %s", true, Messages.StartRunFailed(), Messages.Error(), ex.getMessage());
             logStackTrace(listener, configureSystemSection, ex);
+            startFailure = ex;
         } catch (IOException ex) {
             log(listener, "%s. %s: %s", true, Messages.StartRunFailed(), Messages.Error(), ex.getMessage());
             logStackTrace(listener, configureSystemSection, ex);
+            startFailure = ex;
+        } finally {
+            // the run took the timeslot or created one: the open timeslots listed for the test are outdated
+            PcEntityCache.shared().invalidate(getSharedKey(PcEntityCache.key(PcEntityCache.TIMESLOTS, testID)));
+        }
+        if (model.isEarliestAvailableTimeslot()
+                && StartRunRetryScheduler.classify(startFailure) == StartRunRetryScheduler.FailureKind.CAPACITY) {
+            log(listener, "The run waits for the earliest available timeslot (up to %s minutes).", true, model.getMaxTimeslotWait());
+            return startRunAgain(testID, startFailure,
+                    StartRunRetryScheduler.untilEarliestTimeslot(Integer.parseInt(model.getMaxTimeslotWait()) * 60_000L));
         }
-        if (!("RETRY".equals(model.getRetry()))) {
+        if (!("RETRY".equals(model.getRetry())))
             return 0;
-        } else {
-            //counter
-            int retryCount = 0;
-            //values
-            int retryDelay = Integer.parseInt(model.getRetryDelay());
-            int retryOccurrences = Integer.parseInt(model.getRetryOccurrences());
-
-            while (retryCount <= retryOccurrences) {
-                retryCount++;
-                try {
-                    if (retryCount <= retryOccurrences) {
-                        log(listener, "%s. %s (%s %s). %s: %s.", true,
-                                Messages.StartRunRetryFailed(),
-                                Messages.AttemptingStartAgainSoon(),
-                                retryDelay,
-                                Messages.Minutes(),
-                                Messages.AttemptsRemaining(),
-                                retryOccurrences - retryCount + 1);
-                        Thread.sleep(retryDelay * 60 * 1000);
-                    }
-                } catch (InterruptedException ex) {
-                    log(listener, "wait interrupted", true);
-                    logStackTrace(listener, configureSystemSection, ex);
-                    return 0;
-                }
+        // the configured delay between attempts is the longest wait: the attempts start sooner and back off up to it
+        return startRunAgain(testID, startFailure, new StartRunRetryScheduler(
+                Integer.parseInt(model.getRetryOccurrences()),
+                Integer.parseInt(model.getRetryDelay()) * 60_000L));
+    }
 
-                response = startRunAgain(testID, testInstanceID, response);
-                int ret = (response != null) ? response.getID() : 0;
-                if (ret != 0) {
-                    log(listener, "%s (TestID: %s, RunID: %s, TimeslotID: %s))", true,
-                            Messages.RunStarted(),
-                            response.getTestID(),
-                            response.getID(),
-                            response.getTimeslotID());
-                }
-                return ret;
+    private int startRunAgain(int testID, Exception startFailure, StartRunRetryScheduler scheduler) {
+        // a matching timeslot opened meanwhile is used by the next attempt; otherwise the attempt creates one
+        AtomicInteger openedTimeslotId = new AtomicInteger(-1);
+        try {
+            PcRunResponse response = scheduler.retry(startFailure, listener,
+                    () -> {
+                        try {
+                            return restProxy.startRun(testID,
+                                    testInstanceID,
+                                    new TimeslotDuration(model.getTimeslotDurationHours(true), model.getTimeslotDurationMinutes(true)),
+                                    model.getPostRunAction().getValue(),
+                                    model.isVudsMode(),
+                                    openedTimeslotId.getAndSet(-1));
+                        } finally {
+                            PcEntityCache.shared().invalidate(getSharedKey(PcEntityCache.key(PcEntityCache.TIMESLOTS, testID)));
+                        }
+                    },
+                    () -> {
+                        openedTimeslotId.set(findOpenedTimeslotId(testID));
+                        return openedTimeslotId.get() > 0;
+                    });
+            if (response == null || response.getID() == 0) {
+                log(listener, "%s.", true, Messages.StartRunRetryFailed());
+                return 0;
             }
+            log(listener, "%s (TestID: %s, RunID: %s, TimeslotID: %s)", true,
+                    Messages.RunStarted(),
+                    response.getTestID(),
+                    response.getID(),
+                    response.getTimeslotID());
+            return response.getID();
+        } catch (InterruptedException ex) {
+            log(listener, "wait interrupted", true);
+            logStackTrace(listener, configureSystemSection, ex);
+            Thread.currentThread().interrupt();
+            return 0;
         }
-        return 0;
     }
 
-    private PcRunResponse startRunAgain(int testID, int testInstance, PcRunResponse response) {
+    // compares the load of the test with what the runs started from this Jenkins leave of the farm, before the test is
+    // written and before any timeslot is taken: a start bound to fail for lack of capacity fails (or waits) right away
+    private void acquireCapacity() throws PcException, InterruptedIOException {
+        CapacityRequirement capacity = configureSystemSection == null ? CapacityRequirement.NONE
+                : new CapacityRequirement(configureSystemSection.getFarmVuserLicenses(), configureSystemSection.getFarmLoadGenerators());
+        if (!capacity.isKnown())
+            return;
+        CapacityRequirement requirement = getCapacityRequirement();
+        if (!requirement.isKnown()) {
+            log(listener, "The load of the test cannot be read from its content: the capacity check is skipped.", true);
+            return;
+        }
+        String exceeded = CapacityLedger.exceedsCapacity(requirement, capacity);
+        if (exceeded != null)
+            throw new PcException(String.format("Not enough capacity in the farm: %s.", exceeded));
+        String key = CapacityLedger.key(model.getPcServerName(true));
+        String shortfall = CapacityLedger.shared().shortfall(key, requirement, capacity);
+        long timeoutMillis = 0;
+        if (shortfall != null) {
+            if (!model.isEarliestAvailableTimeslot())
+                throw new PcException(String.format("Not enough capacity left by the other runs started from Jenkins: %s.", shortfall));
+            log(listener, "Waiting up to %s minutes for capacity: %s.", true, model.getMaxTimeslotWait(), shortfall);
+            timeoutMillis = Integer.parseInt(model.getMaxTimeslotWait()) * 60_000L;
+        }
         try {
-            response = restProxy.startRun(testID,
-                    testInstance,
-                    new TimeslotDuration(model.getTimeslotDurationHours(true),model.getTimeslotDurationMinutes(true)),
-                    model.getPostRunAction().getValue(),
-                    model.isVudsMode(),
-                    -1);
-        } catch (NumberFormatException | ClientProtocolException | PcException ex) {
-            log(listener, "%s. %s: %s", true,
-                    Messages.StartRunRetryFailed(),
-                    Messages.Error(),
-                    ex.getMessage());
-            logStackTrace(listener, configureSystemSection, ex);
-        } catch (IOException ex) {
-            log(listener, "%s. %s: %s", true,
-                    Messages.StartRunRetryFailed(),
-                    Messages.Error(),
-                    ex.getMessage());
-            logStackTrace(listener, configureSystemSection, ex);
+            capacityLease = CapacityLedger.shared().acquire(key, requirement, capacity, timeoutMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
         }
-        return response;
+        if (capacityLease == null)
+            throw new PcException(String.format("No capacity freed up within %s minutes: %s.", model.getMaxTimeslotWait(),
+                    CapacityLedger.shared().shortfall(key, requirement, capacity)));
+        log(listener, "Capacity held for the run: %s.", true, requirement);
+    }
+
+    // the content of an existing test is read from the server (and kept for the start), the content of a test created
+    // by the step from its definition
+    private CapacityRequirement getCapacityRequirement() {
+        if ("EXISTING_TEST".equals(model.getTestToRun())) {
+            try {
+                Test test = getTest(Integer.parseInt(model.getTestId(true)));
+                return test == null ? CapacityRequirement.NONE : CapacityRequirement.fromXml(test.objectToXML());
+            } catch (IOException | PcException | NumberFormatException ex) {
+                log(listener, "Test ID %s cannot be read for its load: %s", true, model.getTestId(true), ex.getMessage());
+                return CapacityRequirement.NONE;
+            }
+        }
+        if (testToCreate == null)
+            return CapacityRequirement.NONE;
+        if (testName.isEmpty())
+            return CapacityRequirement.fromYaml(testToCreate);
+        switch (fileExtension.toLowerCase()) {
+            case PcTestRunConstants.XML_EXTENSION:
+                return CapacityRequirement.fromXml(testToCreate);
+            case PcTestRunConstants.YAML_EXTENSION:
+            case PcTestRunConstants.YML_EXTENSION:
+                return CapacityRequirement.fromYaml(testToCreate);
+            default:
+                return CapacityRequirement.NONE;
+        }
+    }
+
+    public void releaseCapacity() {
+        if (capacityLease != null) {
+            capacityLease.close();
+            capacityLease = null;
+        }
+    }
+
+    // cheap capacity probe between start attempts: an open timeslot the run can use
+    private int findOpenedTimeslotId(int testID) throws IOException, PcException {
+        Timeslots openedTimeslots = restProxy.GetOpenTimeslotsByTestId(testID);
+        if (openedTimeslots == null || openedTimeslots.getTimeslotsList() == null)
+            return -1;
+        return openedTimeslots.getTimeslotsList().stream()
+                .filter(timeslot -> IsTimeslotPostRunActionValidComparedToRequestedPostRunAction(timeslot.getPostRunAction()))
+                .filter(timeslot -> timeslot.getLoadTestInstanceID() <= 0 || timeslot.getLoadTestInstanceID() == testInstanceID)
+                .mapToInt(Timeslot::getID)
+                .findFirst()
+                .orElse(-1);
     }
 
     private void printInitMessage() {
@@ -267,7 +450,12 @@ public class PcTestRunClient {
     }
 
     private Test createTestFromYamlOrXml() throws IOException, PcException {
-        Test test = null;
+        String digestKey = TestContentDigestStore.key(model.getPcServerName(true), model.getAlmDomain(true),
+                model.getAlmProject(true), testFolderPath, testName);
+        String digest = ContentDigest.ofString(fileExtension + "\n" + testToCreate);
+        Test test = getUnchangedTest(digestKey, digest);
+        if (test != null)
+            return test;
         if (testName.isEmpty())
             test = restProxy.createOrUpdateTestFromYamlTest(testToCreate);
         else {
@@ -284,12 +472,46 @@ public class PcTestRunClient {
                     break;
             }
         }
+        if (test != null) {
+            // the test was just written: what was read of it before is outdated
+            entityCache.invalidate(PcEntityCache.key(PcEntityCache.TEST, test.getID()));
+            entityCache.invalidate(PcEntityCache.key(PcEntityCache.TEST_DATA, test.getID()));
+            try {
+                TestContentDigestStore.shared().record(digestKey, digest, test.getID());
+            } catch (IOException ex) {
+                // the next run sends the content again
+                logStackTrace(listener, configureSystemSection, ex);
+            }
+        }
         return test;
     }
 
+    // the test last created or updated from the same content, when it still exists with the same name
+    private Test getUnchangedTest(String digestKey, String digest) {
+        TestContentDigestStore digestStore = TestContentDigestStore.shared();
+        String testId = digestStore.getTestId(digestKey, digest);
+        if (testId == null)
+            return null;
+        try {
+            Test test = getTest(Integer.parseInt(testId));
+            if (test != null && (testName.isEmpty() || testName.equalsIgnoreCase(test.getName()))) {
+                log(listener, "The test content is the same as when test ID %s was last updated: the test is not updated again.", true, testId);
+                return test;
+            }
+        } catch (PcException | IOException | NumberFormatException ex) {
+            log(listener, "Test ID %s last updated from the same content cannot be read: the test is updated. %s", true, testId, ex.getMessage());
+        }
+        try {
+            digestStore.forget(digestKey);
+        } catch (IOException ex) {
+            logStackTrace(listener, configureSystemSection, ex);
+        }
+        return null;
+    }
+
     private int getTestForExistingTestId() throws IOException, PcException {
         int testID = Integer.parseInt(model.getTestId(true));
-        Test test = restProxy.getTest(testID);
+        Test test = getTest(testID);
         log(listener, "Running existing test: Test ID %s, Name: %s, Path: %s", true, test.getID(), test.getName(), test.getTestFolderPath());
         return testID;
     }
@@ -299,7 +521,8 @@ public class PcTestRunClient {
         if (model.isSearchTimeslot()) {
             try {
                 log(listener, "Searching timeslot", true);
-                Timeslots openedTimeslots = restProxy.GetOpenTimeslotsByTestId(testID);
+                Timeslots openedTimeslots = getShared(PcEntityCache.key(PcEntityCache.TIMESLOTS, testID),
+                        () -> restProxy.GetOpenTimeslotsByTestId(testID));
                 List<Timeslot> timeslots = openedTimeslots.getTimeslotsList();
                 String timeslotIds = timeslots.stream().map(i -> Integer.toString(i.getID())).collect(Collectors.joining(", "));
                 String timeslotNames = timeslots.stream().map(i -> i.getName()).collect(Collectors.joining(", "));
@@ -342,6 +565,17 @@ public class PcTestRunClient {
         }
     }
 
+    private void useTimeslotReservation() {
+        timeslotId = timeslotReservation.getTimeslotId();
+        if (timeslotReservation.getTimeslotTestInstanceId() > 0)
+            testInstanceID = timeslotReservation.getTimeslotTestInstanceId();
+        else if ("AUTO".equals(model.getAutoTestInstanceID()))
+            testInstanceID = timeslotReservation.getTestInstanceId();
+        log(listener, "Using timeslot %s and TestInstance Id %s reserved earlier in the build.", true,
+                timeslotId > 0 ? timeslotId : "(will be created)",
+                testInstanceID > 0 ? testInstanceID : "(to be searched)");
+    }
+
     private boolean IsTimeslotPostRunActionValidComparedToRequestedPostRunAction(String postRunAction) {
         try {
             TimeslotPostRunAction timeslotPostRUnAction = TimeslotPostRunAction.valueOf(postRunAction);
@@ -358,61 +592,138 @@ public class PcTestRunClient {
         }
     }
 
+    // once the test ID is known, the timeslot search, the test instance lookup (followed by the test set lookup when the
+    // test has no instance yet) and the trend report association do not depend on each other: they run at the same time.
+    // The test instance is only created once the timeslot search tells whether the timeslot brings its own.
+    private void prepareRun(int testID) throws IOException, PcException {
+        boolean useTimeslotReservation = timeslotReservation != null && timeslotReservation.isFor(getTimeslotReservationKey(model, testID));
+        if (timeslotReservation != null && !useTimeslotReservation)
+            log(listener, "The timeslot reserved earlier in the build is for another test, project or post run action, or the run does not search for a timeslot: it is not used.", true);
+        ExecutorService executor = Executors.newFixedThreadPool(PRE_FLIGHT_THREADS);
+        try {
+            Future<?> timeslotSearch = executor.submit(() -> {
+                if (useTimeslotReservation)
+                    useTimeslotReservation();
+                else
+                    getOpenedTimeslot(testID);
+                return null;
+            });
+            Future<TestInstanceLookup> testInstanceLookup = ("AUTO".equals(model.getAutoTestInstanceID()) && !useTimeslotReservation)
+                    ? executor.submit(() -> lookupTestInstance(testID))
+                    : null;
+            Future<?> trendReportAssociation = executor.submit(() -> {
+                setCorrectTrendReportID();
+                return null;
+            });
+
+            await(timeslotSearch);
+            if (testInstanceID > 0)
+                log(listener, "Testinstance already found in the timeslot.", true);
+            else if (testInstanceLookup != null)
+                selectTestInstanceID(testID, await(testInstanceLookup));
+            else
+                getCorrectTestInstanceID(testID);
+            await(trendReportAssociation);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException, PcException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof PcException)
+                throw (PcException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new PcException(cause.toString());
+        }
+    }
+
     private void getCorrectTestInstanceID(int testID) throws IOException, PcException {
-        if ("AUTO".equals(model.getAutoTestInstanceID())) {
+        if ("AUTO".equals(model.getAutoTestInstanceID()))
+            selectTestInstanceID(testID, lookupTestInstance(testID));
+        else
+            testInstanceID = Integer.parseInt(model.getTestInstanceId(true));
+    }
+
+    // the lookup does not fail: its error is raised when the test instance is selected
+    private TestInstanceLookup lookupTestInstance(int testID) {
+        log(listener, Messages.SearchingTestInstance(), true);
+        try {
+            PcTestInstances pcTestInstances = null;
             try {
-                log(listener, Messages.SearchingTestInstance(), true);
-                PcTestInstances pcTestInstances = null;
-                try {
-                    pcTestInstances = restProxy.getTestInstancesByTestId(testID);
-                } catch (PcException ex) {
-                    log(listener, "%s - getTestInstancesByTestId %s. Error: %s", true,
-                            Messages.Failure(),
-                            Messages.Error(),
-                            ex.getMessage());
-                }
+                pcTestInstances = entityCache.get(PcEntityCache.key(PcEntityCache.TEST_INSTANCES, testID),
+                        () -> getShared(PcEntityCache.key(PcEntityCache.TEST_INSTANCES, testID), () -> restProxy.getTestInstancesByTestId(testID)));
+            } catch (PcException ex) {
+                log(listener, "%s - getTestInstancesByTestId %s. Error: %s", true,
+                        Messages.Failure(),
+                        Messages.Error(),
+                        ex.getMessage());
+            }
+            if (pcTestInstances != null && pcTestInstances.getTestInstancesList() != null)
+                return new TestInstanceLookup(pcTestInstances, null, null);
+            return new TestInstanceLookup(null, entityCache.get(PcEntityCache.TEST_SETS, () -> getShared(PcEntityCache.TEST_SETS, restProxy::GetAllTestSets)), null);
+        } catch (IOException | PcException ex) {
+            return new TestInstanceLookup(null, null, ex);
+        }
+    }
 
-                if (pcTestInstances != null && pcTestInstances.getTestInstancesList() != null) {
-                    PcTestInstance pcTestInstance = pcTestInstances.getTestInstancesList().get(pcTestInstances.getTestInstancesList().size() - 1);
-                    testInstanceID = pcTestInstance.getInstanceId();
+    private void selectTestInstanceID(int testID, TestInstanceLookup testInstanceLookup) throws IOException, PcException {
+        try {
+            PcTestInstances pcTestInstances = testInstanceLookup.pcTestInstances;
+            if (pcTestInstances != null) {
+                PcTestInstance pcTestInstance = pcTestInstances.getTestInstancesList().get(pcTestInstances.getTestInstancesList().size() - 1);
+                testInstanceID = pcTestInstance.getInstanceId();
+                log(listener, "%s: %s", true,
+                        Messages.FoundTestInstanceID(),
+                        testInstanceID);
+            } else {
+                log(listener, Messages.NotFoundTestInstanceID(), true);
+                log(listener, Messages.SearchingAvailableTestSet(), true);
+                if (testInstanceLookup.error instanceof IOException)
+                    throw (IOException) testInstanceLookup.error;
+                if (testInstanceLookup.error instanceof PcException)
+                    throw (PcException) testInstanceLookup.error;
+                // Get a random TestSet
+                PcTestSets pcTestSets = testInstanceLookup.pcTestSets;
+                if (pcTestSets != null && pcTestSets.getPcTestSetsList() != null) {
+                    PcTestSet pcTestSet = pcTestSets.getPcTestSetsList().get(pcTestSets.getPcTestSetsList().size() - 1);
+                    int testSetID = pcTestSet.getTestSetID();
+                    log(listener, "%s (Test ID: %s, TestSet ID: %s", true,
+                            Messages.CreatingNewTestInstance(),
+                            testID,
+                            testSetID);
+                    testInstanceID = restProxy.createTestInstance(testID, testSetID);
+                    entityCache.invalidate(PcEntityCache.key(PcEntityCache.TEST_INSTANCES, testID));
+                    PcEntityCache.shared().invalidate(getSharedKey(PcEntityCache.key(PcEntityCache.TEST_INSTANCES, testID)));
                     log(listener, "%s: %s", true,
-                            Messages.FoundTestInstanceID(),
+                            Messages.TestInstanceCreatedSuccessfully(),
                             testInstanceID);
                 } else {
-                    log(listener, Messages.NotFoundTestInstanceID(), true);
-                    log(listener, Messages.SearchingAvailableTestSet(), true);
-                    // Get a random TestSet
-                    PcTestSets pcTestSets = restProxy.GetAllTestSets();
-                    if (pcTestSets != null && pcTestSets.getPcTestSetsList() != null) {
-                        PcTestSet pcTestSet = pcTestSets.getPcTestSetsList().get(pcTestSets.getPcTestSetsList().size() - 1);
-                        int testSetID = pcTestSet.getTestSetID();
-                        log(listener, "%s (Test ID: %s, TestSet ID: %s", true,
-                                Messages.CreatingNewTestInstance(),
-                                testID,
-                                testSetID);
-                        testInstanceID = restProxy.createTestInstance(testID, testSetID);
-                        log(listener, "%s: %s", true,
-                                Messages.TestInstanceCreatedSuccessfully(),
-                                testInstanceID);
-                    } else {
-                        String msg = Messages.NoTestSetAvailable();
-                        log(listener, "%s: %s", true,
-                                Messages.Error(),
-                                msg);
-                        throw new PcException(msg);
-                    }
+                    String msg = Messages.NoTestSetAvailable();
+                    log(listener, "%s: %s", true,
+                            Messages.Error(),
+                            msg);
+                    throw new PcException(msg);
                 }
-            } catch (Exception e) {
-                log(listener, "getCorrectTestInstanceID %s. %s: %s", true,
-                        Messages.Failure(),
-                        Messages.Error(),
-                        e.getMessage());
-                logStackTrace(listener, configureSystemSection, e);
-                testInstanceID = Integer.parseInt(null);
-                throw e;
             }
-        } else
-            testInstanceID = Integer.parseInt(model.getTestInstanceId(true));
+        } catch (Exception e) {
+            log(listener, "getCorrectTestInstanceID %s. %s: %s", true,
+                    Messages.Failure(),
+                    Messages.Error(),
+                    e.getMessage());
+            logStackTrace(listener, configureSystemSection, e);
+            testInstanceID = Integer.parseInt(null);
+            throw e;
+        }
     }
 
     private void setCorrectTrendReportID() throws IOException, PcException {
@@ -421,7 +732,7 @@ public class PcTestRunClient {
                 Messages.PleaseTurnAutomaticTrendOn() + "\n" +
                 Messages.PleaseTurnAutomaticTrendOnAlternative();
         if (("ASSOCIATED").equals(model.getAddRunToTrendReport()) && model.getPostRunAction() != PostRunAction.DO_NOTHING) {
-            PcTest pcTest = restProxy.getTestData(Integer.parseInt(model.getTestId(true)));
+            PcTest pcTest = getTestData(Integer.parseInt(model.getTestId(true)));
             //if the trend report ID is parametrized
             if (!model.getTrendReportId().startsWith("$")) {
                 if (pcTest.getTrendReportId() > -1)
@@ -444,10 +755,30 @@ public class PcTestRunClient {
         }
     }
 
+    // lists read by every run of the project are shared with the other builds for a short while
+    private <T> T getShared(String key, PcEntityCache.Loader<T> loader) throws IOException, PcException {
+        int timeToLiveSeconds = configureSystemSection == null ? 0 : configureSystemSection.getEntityCacheTimeToLiveSeconds();
+        if (timeToLiveSeconds <= 0)
+            return loader.load();
+        return PcEntityCache.shared().get(getSharedKey(key), timeToLiveSeconds * 1000L, loader);
+    }
+
+    private String getSharedKey(String key) {
+        return PcEntityCache.key(model.getPcServerName(true), model.getAlmDomain(true), model.getAlmProject(true), key);
+    }
+
+    private Test getTest(int testID) throws IOException, PcException {
+        return entityCache.get(PcEntityCache.key(PcEntityCache.TEST, testID), () -> restProxy.getTest(testID));
+    }
+
+    private PcTest getTestData(int testID) throws IOException, PcException {
+        return entityCache.get(PcEntityCache.key(PcEntityCache.TEST_DATA, testID), () -> restProxy.getTestData(testID));
+    }
+
     public String getTestName() throws IOException, PcException {
 
         try {
-            PcTest pcTest = restProxy.getTestData(Integer.parseInt(model.getTestId(true)));
+            PcTest pcTest = getTestData(Integer.parseInt(model.getTestId(true)));
             return pcTest.getTestName();
         } catch (PcException | IOException ex) {
             log(listener, "getTestData failed for testId : %s", true, model.getTestId(true));
@@ -462,22 +793,29 @@ public class PcTestRunClient {
     }
 
     public PcRunResponse waitForRunCompletion(int runId, int interval) throws InterruptedException, ClientProtocolException, PcException, IOException {
-        RunState state;
+        try {
+            return waitForRunState(runId, getCompletionState(), interval);
+        } finally {
+            releaseRunResources();
+        }
+    }
+
+    // the state in which the run is over for the step, according to the post run action
+    public RunState getCompletionState() {
         switch (model.getPostRunAction()) {
             case DO_NOTHING:
-                state = RunState.BEFORE_COLLATING_RESULTS;
-                break;
+                return RunState.BEFORE_COLLATING_RESULTS;
             case COLLATE:
-                state = RunState.BEFORE_CREATING_ANALYSIS_DATA;
-                break;
+                return RunState.BEFORE_CREATING_ANALYSIS_DATA;
             case COLLATE_AND_ANALYZE:
-                state = RunState.FINISHED;
-                break;
+                return RunState.FINISHED;
             default:
-                state = RunState.UNDEFINED;
-                break;
+                return RunState.UNDEFINED;
         }
-        return waitForRunState(runId, state, interval);
+    }
+
+    public PcRunResponse getRunData(int runId) throws IOException, PcException {
+        return restProxy.getRunData(runId);
     }
 
 
@@ -595,6 +933,7 @@ public class PcTestRunClient {
     }
 
     public boolean logout() {
+        releaseRunResources();
         if (!loggedIn)
             return true;
 
@@ -792,4 +1131,16 @@ public class PcTestRunClient {
         }
         return measurmentsMap;
     }
-}
\ No newline at end of file
+
+    private static final class TestInstanceLookup {
+        private final PcTestInstances pcTestInstances;
+        private final PcTestSets pcTestSets;
+        private final Exception error;
+
+        private TestInstanceLookup(PcTestInstances pcTestInstances, PcTestSets pcTestSets, Exception error) {
+            this.pcTestInstances = pcTestInstances;
+            this.pcTestSets = pcTestSets;
+            this.error = error;
+        }
+    }
+}
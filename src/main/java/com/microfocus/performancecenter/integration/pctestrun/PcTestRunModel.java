@@ -38,6 +38,9 @@ public class PcTestRunModel {
     public static final String COLLATE = "Collate Results";
     public static final String COLLATE_ANALYZE = "Collate and Analyze";
     public static final String DO_NOTHING = "Do Not Collate";
+    public static final String START_NOW = "START_NOW";
+    public static final String EARLIEST_AVAILABLE = "EARLIEST_AVAILABLE";
+    public static final int DEFAULT_MAX_TIMESLOT_WAIT = 60;
 
     private final String serverAndPort;
     private final String pcServerName;
@@ -66,12 +69,15 @@ public class PcTestRunModel {
     private String trendReportWaitTime;
     private String timeslotDurationHours;
     private String timeslotDurationMinutes;
+    private String timeslotScheduling;
+    private String maxTimeslotWait;
 
     @DataBoundConstructor
     public PcTestRunModel(String serverAndPort, String pcServerName, String credentialsId, String almDomain, String almProject, String testToRun,
                           String testId, String testContentToCreate, String autoTestInstanceID, String testInstanceId, String timeslotDurationHours, String timeslotDurationMinutes,
                           PostRunAction postRunAction, boolean vudsMode, String description, String addRunToTrendReport, String trendReportId, boolean HTTPSProtocol,
-                          String proxyOutURL, String credentialsProxyId, String retry, String retryDelay, String retryOccurrences, String trendReportWaitTime, boolean authenticateWithToken, boolean searchTimeslot) {
+                          String proxyOutURL, String credentialsProxyId, String retry, String retryDelay, String retryOccurrences, String trendReportWaitTime, boolean authenticateWithToken, boolean searchTimeslot,
+                          String timeslotScheduling, String maxTimeslotWait) {
 
         this.serverAndPort = serverAndPort;
         this.pcServerName = pcServerName;
@@ -100,9 +106,26 @@ public class PcTestRunModel {
         this.trendReportWaitTime = verifyStringValueIsIntAndPositive(trendReportWaitTime, 0);
         this.authenticateWithToken = authenticateWithToken;
         this.searchTimeslot = searchTimeslot;
+        this.timeslotScheduling = timeslotScheduling;
+        this.maxTimeslotWait = verifyStringValueIsIntAndPositive(maxTimeslotWait, DEFAULT_MAX_TIMESLOT_WAIT);
 
     }
 
+    /**
+     * The same run on another LoadRunner Enterprise server or project holding an equivalent copy of the test.
+     * The test instance is selected automatically there, and a trend report given by ID (which belongs to this project)
+     * is not updated.
+     */
+    public PcTestRunModel forTarget(String pcServerName, String almDomain, String almProject, String testId) {
+        PcTestRunModel model = new PcTestRunModel(serverAndPort, pcServerName, credentialsId, almDomain, almProject, testToRun,
+                testId, testContentToCreate, "AUTO", "", timeslotDurationHours, timeslotDurationMinutes,
+                postRunAction, vudsMode, description, "USE_ID".equals(addRunToTrendReport) ? "NO_TREND" : addRunToTrendReport,
+                trendReportId, HTTPSProtocol, proxyOutURL, credentialsProxyId, retry, retryDelay, retryOccurrences, trendReportWaitTime,
+                authenticateWithToken, searchTimeslot, timeslotScheduling, maxTimeslotWait);
+        model.setBuildParameters(buildParameters);
+        return model;
+    }
+
     private static boolean isInteger(String s, int radix) {
         if (s.isEmpty()) return false;
         for (int i = 0; i < s.length(); i++) {
@@ -365,4 +388,17 @@ public class PcTestRunModel {
     public boolean isSearchTimeslot() {
         return this.searchTimeslot;
     }
+
+    // jobs saved before the option existed start their runs right away
+    public String getTimeslotScheduling() {
+        return EARLIEST_AVAILABLE.equals(timeslotScheduling) ? EARLIEST_AVAILABLE : START_NOW;
+    }
+
+    public boolean isEarliestAvailableTimeslot() {
+        return EARLIEST_AVAILABLE.equals(getTimeslotScheduling());
+    }
+
+    public String getMaxTimeslotWait() {
+        return maxTimeslotWait == null ? Integer.toString(DEFAULT_MAX_TIMESLOT_WAIT) : maxTimeslotWait;
+    }
 }
\ No newline at end of file
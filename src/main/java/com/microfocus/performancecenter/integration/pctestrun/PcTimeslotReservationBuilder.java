@@ -0,0 +1,259 @@
+/*
+ * Reserves the timeslot of a test early in the build, while the build is still preparing the test
+ * */
+package com.microfocus.performancecenter.integration.pctestrun;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PostRunAction;
+import com.microfocus.performancecenter.integration.common.helpers.utils.LinePrefixOutputStream;
+import com.microfocus.performancecenter.integration.configuresystem.ConfigureSystemSection;
+import com.microfocus.performancecenter.integration.pctestrun.helper.AdditionalParametersAction;
+import com.microfocus.performancecenter.integration.pctestrun.helper.TimeslotReservation;
+import com.microfocus.performancecenter.integration.pctestrun.helper.TimeslotReservationRegistry;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.*;
+import hudson.tasks.BuildStepDescriptor;
+import hudson.tasks.Builder;
+import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
+import hudson.util.StreamTaskListener;
+import jenkins.model.Jenkins;
+import jenkins.tasks.SimpleBuildStep;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
+
+public class PcTimeslotReservationBuilder extends Builder implements SimpleBuildStep {
+
+    private static final String TIMESLOTID_BUILD_VARIABLE = "PC_TIMESLOT_ID";
+
+    private final String description;
+    private final String pcServerName;
+    private final boolean HTTPSProtocol;
+    private final boolean authenticateWithToken;
+    private final String credentialsId;
+    private final String almDomain;
+    private final String almProject;
+    private final String testId;
+    private final PostRunAction postRunAction;
+    private final String proxyOutURL;
+    private final String credentialsProxyId;
+
+    @DataBoundConstructor
+    public PcTimeslotReservationBuilder(
+            String description,
+            String pcServerName,
+            boolean HTTPSProtocol,
+            boolean authenticateWithToken,
+            String credentialsId,
+            String almDomain,
+            String almProject,
+            String testId,
+            PostRunAction postRunAction,
+            String proxyOutURL,
+            String credentialsProxyId) {
+        this.description = description;
+        this.pcServerName = pcServerName;
+        this.HTTPSProtocol = HTTPSProtocol;
+        this.authenticateWithToken = authenticateWithToken;
+        this.credentialsId = credentialsId;
+        this.almDomain = almDomain;
+        this.almProject = almProject;
+        this.testId = testId;
+        this.postRunAction = postRunAction;
+        this.proxyOutURL = proxyOutURL;
+        this.credentialsProxyId = credentialsProxyId;
+    }
+
+    private static TimeslotReservation reserve(Run<?, ?> build, PcTestRunClient pcTestRunClient, TaskListener listener)
+            throws IOException, PcException {
+        try {
+            if (!pcTestRunClient.login(listener))
+                throw new PcException(Messages.LoginFailed());
+            TimeslotReservation timeslotReservation = pcTestRunClient.reserveTimeslot();
+            if (timeslotReservation.getTimeslotId() > 0) {
+                List<ParameterValue> parameters = new ArrayList<>();
+                parameters.add(new StringParameterValue(TIMESLOTID_BUILD_VARIABLE, "" + timeslotReservation.getTimeslotId()));
+                // This allows a user to access the timeslot ID from within Jenkins using a build variable.
+                build.addAction(new AdditionalParametersAction(parameters));
+                log(listener, "%s: %s = %s", true, Messages.SetEnvironmentVariable(), TIMESLOTID_BUILD_VARIABLE, timeslotReservation.getTimeslotId());
+            } else {
+                log(listener, "No open timeslot matches the test: the timeslot will be created when the run starts.", true);
+            }
+            return timeslotReservation;
+        } finally {
+            pcTestRunClient.logout();
+        }
+    }
+
+    @Override
+    public void perform(@Nonnull Run<?, ?> build, @Nonnull FilePath workspace, @Nonnull Launcher launcher,
+                        @Nonnull TaskListener listener) throws InterruptedException, IOException {
+        PcTestRunModel pcTestRunModel = getPcTestRunModel();
+        pcTestRunModel.setBuildParameters(build.getEnvironment(listener).toString());
+
+        LinePrefixOutputStream output = new LinePrefixOutputStream(listener.getLogger(), "[timeslot reservation] ", StandardCharsets.UTF_8);
+        TaskListener reservationListener = new StreamTaskListener(output, StandardCharsets.UTF_8);
+        // the reservation runs on another thread: the credentials are resolved from this build, not the one being run
+        PcTestRunClient pcTestRunClient = new PcTestRunClient(pcTestRunModel, "", "", "", "", reservationListener, ConfigureSystemSection.get(), build);
+        Future<TimeslotReservation> reservation = Computer.threadPoolForRemoting.submit(() -> {
+            try {
+                return reserve(build, pcTestRunClient, reservationListener);
+            } finally {
+                output.close();
+            }
+        });
+        TimeslotReservationRegistry.register(build, reservation);
+        log(listener, "The timeslot of test ID %s is reserved in the background. The test run step of the build waits for it.",
+                true, pcTestRunModel.getTestId(true));
+    }
+
+    PcTestRunModel getPcTestRunModel() {
+        return new PcTestRunModel(
+                "",
+                pcServerName.trim(),
+                credentialsId,
+                almDomain.trim(),
+                almProject.trim(),
+                "EXISTING_TEST",
+                testId.trim(),
+                "",
+                "AUTO",
+                "",
+                "0",
+                "0",
+                postRunAction,
+                false,
+                description,
+                "NO_TREND",
+                "",
+                HTTPSProtocol,
+                proxyOutURL,
+                credentialsProxyId,
+                "NO_RETRY",
+                "0",
+                "0",
+                "0",
+                authenticateWithToken,
+                true,
+                PcTestRunModel.START_NOW,
+                null
+        );
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getPcServerName() {
+        return pcServerName;
+    }
+
+    public boolean isHTTPSProtocol() {
+        return HTTPSProtocol;
+    }
+
+    public boolean isAuthenticateWithToken() {
+        return authenticateWithToken;
+    }
+
+    public String getCredentialsId() {
+        return credentialsId;
+    }
+
+    public String getAlmDomain() {
+        return almDomain;
+    }
+
+    public String getAlmProject() {
+        return almProject;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public PostRunAction getPostRunAction() {
+        return postRunAction;
+    }
+
+    public String getProxyOutURL() {
+        return proxyOutURL;
+    }
+
+    public String getCredentialsProxyId() {
+        return credentialsProxyId;
+    }
+
+    @Extension
+    @Symbol("pcReserveTimeslot")
+    public static final class DescriptorImpl extends BuildStepDescriptor<Builder> {
+
+        @Override
+        public boolean isApplicable(
+                @SuppressWarnings("rawtypes") Class<? extends AbstractProject> jobType) {
+
+            return true;
+        }
+
+        @Override
+        public String getDisplayName() {
+
+            return Messages.ReserveTimeslotDisplayName();
+        }
+
+        // the fields are the same as the ones of the test run step
+        private static PcTestRunBuilder.DescriptorImpl getTestRunDescriptor() {
+            return Jenkins.getInstance().getDescriptorByType(PcTestRunBuilder.DescriptorImpl.class);
+        }
+
+        public FormValidation doCheckPcServerName(@QueryParameter String value) {
+
+            return getTestRunDescriptor().doCheckPcServerName(value);
+        }
+
+        public FormValidation doCheckAlmDomain(@QueryParameter String value) {
+
+            return getTestRunDescriptor().doCheckAlmDomain(value);
+        }
+
+        public FormValidation doCheckAlmProject(@QueryParameter String value) {
+
+            return getTestRunDescriptor().doCheckAlmProject(value);
+        }
+
+        public FormValidation doCheckTestId(@QueryParameter String value, @AncestorInPath AbstractProject project) {
+
+            return getTestRunDescriptor().doCheckTestId(value, "EXISTING_TEST", "", project);
+        }
+
+        public List<PostRunAction> getPostRunActions() {
+
+            return PcTestRunModel.getPostRunActions();
+        }
+
+        public ListBoxModel doFillCredentialsIdItems(@AncestorInPath Item project,
+                                                     @QueryParameter String credentialsId) {
+
+            return getTestRunDescriptor().doFillCredentialsIdItems(project, credentialsId);
+        }
+
+        public ListBoxModel doFillCredentialsProxyIdItems(@AncestorInPath Item project,
+                                                          @QueryParameter String credentialsId) {
+
+            return getTestRunDescriptor().doFillCredentialsIdItems(project, credentialsId);
+        }
+    }
+}
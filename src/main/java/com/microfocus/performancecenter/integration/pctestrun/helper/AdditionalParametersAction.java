@@ -66,8 +66,7 @@ public class AdditionalParametersAction extends ParametersAction {
         @Override
         public void buildEnvironmentFor(Run r, EnvVars envs, TaskListener listener)
                 throws IOException, InterruptedException {
-            AdditionalParametersAction action = r.getAction(AdditionalParametersAction.class);
-            if (action != null) {
+            for (AdditionalParametersAction action : r.getActions(AdditionalParametersAction.class)) {
                 for (ParameterValue p : action.getParameters()) {
                     envs.putIfNotNull(p.getName(), String.valueOf(p.getValue()));
                 }
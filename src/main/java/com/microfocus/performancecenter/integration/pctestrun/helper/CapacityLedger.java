@@ -0,0 +1,131 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun.helper;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keeps count of the Vuser licenses and load generators held by the runs this Jenkins started on each LoadRunner
+ * Enterprise server, so that a run is only started when the rest of the farm capacity fits it.
+ * Runs started from elsewhere are not known: the check spares a start that is bound to fail, it does not guarantee one.
+ */
+public class CapacityLedger {
+
+    private static final CapacityLedger SHARED = new CapacityLedger();
+
+    private final Map<String, CapacityRequirement> held = new HashMap<>();
+
+    public static CapacityLedger shared() {
+        return SHARED;
+    }
+
+    public static String key(String pcServerName) {
+        return pcServerName == null ? "" : pcServerName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized CapacityRequirement getHeld(String key) {
+        return held.getOrDefault(key, CapacityRequirement.NONE);
+    }
+
+    /**
+     * @return why the requirement can never fit the capacity, or null when it fits an idle farm.
+     */
+    public static String exceedsCapacity(CapacityRequirement requirement, CapacityRequirement capacity) {
+        return shortfall(requirement, capacity, CapacityRequirement.NONE);
+    }
+
+    /**
+     * @return why the requirement does not fit what the other runs leave of the capacity, or null when it fits.
+     */
+    public synchronized String shortfall(String key, CapacityRequirement requirement, CapacityRequirement capacity) {
+        return shortfall(requirement, capacity, getHeld(key));
+    }
+
+    private static String shortfall(CapacityRequirement requirement, CapacityRequirement capacity, CapacityRequirement held) {
+        StringBuilder reason = new StringBuilder();
+        if (capacity.getVusers() > 0 && held.getVusers() + requirement.getVusers() > capacity.getVusers())
+            reason.append(String.format("the test requires %d Vusers while %d of the %d Vuser licenses are free",
+                    requirement.getVusers(), Math.max(0, capacity.getVusers() - held.getVusers()), capacity.getVusers()));
+        if (capacity.getLoadGenerators() > 0 && held.getLoadGenerators() + requirement.getLoadGenerators() > capacity.getLoadGenerators())
+            reason.append(reason.length() > 0 ? " and " : "").append(String.format(
+                    "the test requires %d load generators while %d of the %d load generators are free",
+                    requirement.getLoadGenerators(), Math.max(0, capacity.getLoadGenerators() - held.getLoadGenerators()),
+                    capacity.getLoadGenerators()));
+        return reason.length() > 0 ? reason.toString() : null;
+    }
+
+    /**
+     * Holds the requirement as soon as the capacity left fits it.
+     *
+     * @param timeoutMillis how long to wait for the other runs to release capacity; 0 does not wait.
+     * @return the lease to close once the run ended, or null when the capacity left did not fit in time.
+     */
+    public synchronized Lease acquire(String key, CapacityRequirement requirement, CapacityRequirement capacity,
+                                      long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (long remaining = timeoutMillis; shortfall(key, requirement, capacity) != null; remaining = deadline - System.currentTimeMillis()) {
+            if (remaining <= 0)
+                return null;
+            wait(remaining);
+        }
+        held.put(key, getHeld(key).plus(requirement));
+        return new Lease(key, requirement);
+    }
+
+    private synchronized void release(String key, CapacityRequirement requirement) {
+        CapacityRequirement left = getHeld(key).minus(requirement);
+        if (left.isKnown())
+            held.put(key, left);
+        else
+            held.remove(key);
+        notifyAll();
+    }
+
+    public final class Lease implements AutoCloseable {
+        private final String key;
+        private final CapacityRequirement requirement;
+        private boolean released;
+
+        private Lease(String key, CapacityRequirement requirement) {
+            this.key = key;
+            this.requirement = requirement;
+        }
+
+        public CapacityRequirement getRequirement() {
+            return requirement;
+        }
+
+        @Override
+        public void close() {
+            synchronized (CapacityLedger.this) {
+                if (released)
+                    return;
+                released = true;
+                release(key, requirement);
+            }
+        }
+    }
+}
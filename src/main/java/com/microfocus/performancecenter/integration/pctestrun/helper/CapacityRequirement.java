@@ -0,0 +1,145 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun.helper;
+
+import com.microfocus.performancecenter.integration.common.helpers.utils.YamlTestReferences;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Load a test needs from LoadRunner Enterprise: Vuser licenses and load generators. Also used for the capacity of the
+ * farm and for the load held by running tests. 0 means unknown (for a requirement) or not limited (for a capacity).
+ */
+public final class CapacityRequirement {
+
+    public static final CapacityRequirement NONE = new CapacityRequirement(0, 0);
+
+    private final int vusers;
+    private final int loadGenerators;
+
+    public CapacityRequirement(int vusers, int loadGenerators) {
+        this.vusers = Math.max(0, vusers);
+        this.loadGenerators = Math.max(0, loadGenerators);
+    }
+
+    public static CapacityRequirement fromYaml(String yamlContent) {
+        YamlTestReferences references = YamlTestReferences.parse(yamlContent);
+        return new CapacityRequirement(references.getTotalVusers(), references.getRequiredLoadGenerators());
+    }
+
+    // the Test XML of the LoadRunner Enterprise REST API: the Vusers of every group, and either the amount of the load
+    // generator distribution or the distinct hosts assigned to the groups. Only the Vusers of the groups are counted:
+    // the ramp up and down of the scheduler have Vusers too.
+    public static CapacityRequirement fromXml(String xmlContent) {
+        if (xmlContent == null)
+            return NONE;
+        Document document;
+        try {
+            document = parseXml(xmlContent);
+        } catch (ParserConfigurationException | SAXException | IOException ex) {
+            return NONE;
+        }
+        int vusers = 0;
+        Set<String> hostNames = new LinkedHashSet<>();
+        NodeList groups = document.getElementsByTagNameNS("*", "Group");
+        for (int i = 0; i < groups.getLength(); i++) {
+            Element group = (Element) groups.item(i);
+            vusers += toInt(getChildText(group, "Vusers"));
+            NodeList hosts = group.getElementsByTagNameNS("*", "Host");
+            for (int j = 0; j < hosts.getLength(); j++) {
+                String hostName = getChildText((Element) hosts.item(j), "Name");
+                if (hostName != null && !hostName.isEmpty())
+                    hostNames.add(hostName.toUpperCase(Locale.ROOT));
+            }
+        }
+        NodeList lgDistributions = document.getElementsByTagNameNS("*", "LGDistribution");
+        if (lgDistributions.getLength() > 0) {
+            NodeList amounts = ((Element) lgDistributions.item(0)).getElementsByTagNameNS("*", "Amount");
+            if (amounts.getLength() > 0)
+                return new CapacityRequirement(vusers, toInt(amounts.item(0).getTextContent()));
+        }
+        return new CapacityRequirement(vusers, hostNames.size());
+    }
+
+    private static Document parseXml(String xmlContent) throws ParserConfigurationException, SAXException, IOException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        return factory.newDocumentBuilder().parse(new InputSource(new StringReader(xmlContent)));
+    }
+
+    private static String getChildText(Element parent, String localName) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && localName.equalsIgnoreCase(child.getLocalName()))
+                return child.getTextContent().trim();
+        }
+        return null;
+    }
+
+    private static int toInt(String value) {
+        try {
+            return value == null ? 0 : Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    public int getVusers() {
+        return vusers;
+    }
+
+    public int getLoadGenerators() {
+        return loadGenerators;
+    }
+
+    public boolean isKnown() {
+        return vusers > 0 || loadGenerators > 0;
+    }
+
+    public CapacityRequirement plus(CapacityRequirement other) {
+        return new CapacityRequirement(vusers + other.vusers, loadGenerators + other.loadGenerators);
+    }
+
+    public CapacityRequirement minus(CapacityRequirement other) {
+        return new CapacityRequirement(vusers - other.vusers, loadGenerators - other.loadGenerators);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d Vusers on %d load generators", vusers, loadGenerators);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun.helper;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * LoadRunner Enterprise entities kept after being fetched, so that they are not fetched again.
+ * Concurrent requests of the same entity share a single fetch. A failed fetch is not kept: the requests that were waiting
+ * for it, possibly from other builds with their own session, fetch the entity again themselves. The entities modified
+ * by the plugin must be invalidated.
+ * A test run step keeps its own cache for the lifetime of the step; the entities listed by every run of a project
+ * (test sets, test instances, timeslots) are also kept for a short while in a cache shared by all the builds.
+ */
+public class PcEntityCache {
+
+    public static final String TEST = "test";
+    public static final String TEST_DATA = "testData";
+    public static final String TEST_INSTANCES = "testInstances";
+    public static final String TEST_SETS = "testSets";
+    public static final String TIMESLOTS = "timeslots";
+
+    private static final int SHARED_MAX_ENTRIES = 1000;
+    private static final PcEntityCache SHARED = new PcEntityCache(SHARED_MAX_ENTRIES);
+
+    private final Map<String, Entry> entities;
+
+    public PcEntityCache() {
+        this(0);
+    }
+
+    /**
+     * @param maxEntries the least recently used entities are dropped above that count, 0 for no limit.
+     */
+    public PcEntityCache(int maxEntries) {
+        this.entities = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return maxEntries > 0 && size() > maxEntries;
+            }
+        };
+    }
+
+    public static PcEntityCache shared() {
+        return SHARED;
+    }
+
+    public static String key(String entityType, Object id) {
+        return entityType + ":" + id;
+    }
+
+    // the entities of different LRE projects are kept apart in the shared cache
+    public static String key(String server, String domain, String project, String entityKey) {
+        return (server + "/" + domain + "/" + project).toLowerCase(Locale.ROOT) + "|" + entityKey;
+    }
+
+    public <T> T get(String key, Loader<T> loader) throws IOException, PcException {
+        return get(key, 0, loader);
+    }
+
+    /**
+     * @param timeToLiveMillis how long the entity is kept once fetched, 0 to keep it as long as the cache.
+     */
+    public <T> T get(String key, long timeToLiveMillis, Loader<T> loader) throws IOException, PcException {
+        return get(key, timeToLiveMillis, loader, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String key, long timeToLiveMillis, Loader<T> loader, boolean ownFetch) throws IOException, PcException {
+        Entry entry;
+        boolean fetching = false;
+        synchronized (entities) {
+            entry = entities.get(key);
+            if (ownFetch || entry == null || entry.isExpired(timeToLiveMillis)) {
+                entry = new Entry(new FutureTask<>(loader::load));
+                entities.put(key, entry);
+                fetching = true;
+            }
+        }
+        if (fetching) {
+            entry.fetch.run();
+            entry.fetchedAt = System.currentTimeMillis();
+        }
+        try {
+            return (T) entry.fetch.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
+        } catch (ExecutionException ex) {
+            synchronized (entities) {
+                entities.remove(key, entry);
+            }
+            // the error of another request's fetch may be its own (session, credentials): fetch once with this loader
+            if (!fetching)
+                return get(key, timeToLiveMillis, loader, true);
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof PcException)
+                throw (PcException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new PcException(cause.toString());
+        }
+    }
+
+    public void invalidate(String key) {
+        synchronized (entities) {
+            entities.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entities) {
+            entities.clear();
+        }
+    }
+
+    public interface Loader<T> {
+        T load() throws IOException, PcException;
+    }
+
+    private static final class Entry {
+        private final FutureTask<Object> fetch;
+        // 0 while the entity is being fetched: requests meanwhile wait for that fetch
+        private volatile long fetchedAt;
+
+        private Entry(FutureTask<Object> fetch) {
+            this.fetch = fetch;
+        }
+
+        private boolean isExpired(long timeToLiveMillis) {
+            return timeToLiveMillis > 0 && fetchedAt > 0 && System.currentTimeMillis() - fetchedAt >= timeToLiveMillis;
+        }
+    }
+}
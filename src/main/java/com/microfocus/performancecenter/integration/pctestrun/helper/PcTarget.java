@@ -0,0 +1,96 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A LoadRunner Enterprise server and project able to run the test of a step, with the ID of the test there.
+ */
+public final class PcTarget {
+
+    /**
+     * Separates the values of a target, as for the additional projects of the Git synchronization step.
+     */
+    public static final String SEPARATOR = ";";
+
+    private final String pcServerName;
+    private final String almDomain;
+    private final String almProject;
+    private final String testId;
+
+    public PcTarget(String pcServerName, String almDomain, String almProject, String testId) {
+        this.pcServerName = pcServerName;
+        this.almDomain = almDomain;
+        this.almProject = almProject;
+        this.testId = testId;
+    }
+
+    /**
+     * Reads one target per line, as "server;domain;project;test ID". A value left out or empty is the one of the
+     * primary target.
+     */
+    public static List<PcTarget> parse(String targets, PcTarget primary) {
+        List<PcTarget> parsed = new ArrayList<>();
+        if (targets == null)
+            return parsed;
+        for (String line : targets.split("\\r?\\n")) {
+            if (line.trim().isEmpty())
+                continue;
+            String[] values = line.split(SEPARATOR, -1);
+            parsed.add(new PcTarget(
+                    valueAt(values, 0, primary.pcServerName),
+                    valueAt(values, 1, primary.almDomain),
+                    valueAt(values, 2, primary.almProject),
+                    valueAt(values, 3, primary.testId)));
+        }
+        return parsed;
+    }
+
+    private static String valueAt(String[] values, int index, String defaultValue) {
+        return index < values.length && !values[index].trim().isEmpty() ? values[index].trim() : defaultValue;
+    }
+
+    public String getPcServerName() {
+        return pcServerName;
+    }
+
+    public String getAlmDomain() {
+        return almDomain;
+    }
+
+    public String getAlmProject() {
+        return almProject;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s/%s", pcServerName, almDomain, almProject);
+    }
+}
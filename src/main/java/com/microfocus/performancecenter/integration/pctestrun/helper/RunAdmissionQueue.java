@@ -0,0 +1,148 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun.helper;
+
+import hudson.model.TaskListener;
+
+import java.util.*;
+
+import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
+
+/**
+ * Limits the runs this Jenkins has active at the same time on a LoadRunner Enterprise project. The builds over the
+ * limit wait in line and are admitted as the active runs end, the highest priority first and in arrival order between
+ * equal priorities, instead of all attempting to start and retrying on capacity failures.
+ */
+public class RunAdmissionQueue {
+
+    private static final RunAdmissionQueue SHARED = new RunAdmissionQueue();
+
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private long arrivals;
+
+    public static RunAdmissionQueue shared() {
+        return SHARED;
+    }
+
+    public static String key(String pcServerName, String almDomain, String almProject) {
+        return String.format("%s|%s|%s", pcServerName, almDomain, almProject).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param limit    the number of active runs admitted on the project; 0 or less admits right away.
+     * @param priority runs with a higher priority are admitted first.
+     * @return the ticket to close once the run ended.
+     */
+    public synchronized Ticket admit(String key, int limit, int priority, TaskListener listener) throws InterruptedException {
+        Lane lane = lanes.computeIfAbsent(key, k -> new Lane());
+        Waiter waiter = new Waiter(priority, arrivals++);
+        lane.waiting.add(waiter);
+        int loggedPosition = 0;
+        try {
+            while (limit > 0 && (lane.active >= limit || lane.waiting.first() != waiter)) {
+                int position = lane.waiting.headSet(waiter).size() + 1;
+                if (position != loggedPosition) {
+                    log(listener, "Waiting for %d active run(s) of the project to end before starting: position %d in line (priority %d).",
+                            true, lane.active, position, priority);
+                    loggedPosition = position;
+                }
+                wait();
+            }
+        } catch (InterruptedException ex) {
+            lane.waiting.remove(waiter);
+            removeIfIdle(key, lane);
+            // the next waiter may be admitted now
+            notifyAll();
+            throw ex;
+        }
+        lane.waiting.remove(waiter);
+        lane.active++;
+        notifyAll();
+        return new Ticket(key);
+    }
+
+    public synchronized int getActive(String key) {
+        Lane lane = lanes.get(key);
+        return lane == null ? 0 : lane.active;
+    }
+
+    public synchronized int getWaiting(String key) {
+        Lane lane = lanes.get(key);
+        return lane == null ? 0 : lane.waiting.size();
+    }
+
+    private synchronized void release(String key) {
+        Lane lane = lanes.get(key);
+        if (lane == null)
+            return;
+        lane.active--;
+        removeIfIdle(key, lane);
+        notifyAll();
+    }
+
+    private void removeIfIdle(String key, Lane lane) {
+        if (lane.active <= 0 && lane.waiting.isEmpty())
+            lanes.remove(key);
+    }
+
+    private static final class Lane {
+        private final TreeSet<Waiter> waiting = new TreeSet<>();
+        private int active;
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        private final int priority;
+        private final long arrival;
+
+        private Waiter(int priority, long arrival) {
+            this.priority = priority;
+            this.arrival = arrival;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = Integer.compare(other.priority, priority);
+            return byPriority != 0 ? byPriority : Long.compare(arrival, other.arrival);
+        }
+    }
+
+    public final class Ticket implements AutoCloseable {
+        private final String key;
+        private boolean released;
+
+        private Ticket(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void close() {
+            synchronized (RunAdmissionQueue.this) {
+                if (released)
+                    return;
+                released = true;
+                release(key);
+            }
+        }
+    }
+}
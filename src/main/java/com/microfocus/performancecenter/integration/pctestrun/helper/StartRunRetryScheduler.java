@@ -0,0 +1,172 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun.helper;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+import com.microfocus.performancecenter.integration.common.helpers.utils.RetryPolicy;
+import hudson.model.TaskListener;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
+
+/**
+ * Retries a run that failed to start, waiting an exponentially growing delay with jitter between attempts.
+ * A start that failed for lack of capacity (busy timeslot, missing hosts or licenses) is attempted again as soon as a
+ * cheap probe tells that capacity freed up; a start that cannot succeed (missing test, invalid parameter, permission)
+ * is not attempted again.
+ * When scheduling for the earliest available timeslot, the attempts are not counted: they go on until a deadline.
+ */
+public class StartRunRetryScheduler {
+
+    public static final long INITIAL_DELAY_MILLIS = 15_000L;
+    public static final long CAPACITY_POLL_INTERVAL_MILLIS = 20_000L;
+    public static final long EARLIEST_TIMESLOT_MAX_DELAY_MILLIS = 300_000L;
+
+    private static final Pattern CAPACITY_ERROR = Pattern.compile(
+            "(?i).*(not enough|insufficient|no available|not available|unavailable|no free|(is|are) (busy|in use|occupied)|exceed|limit reached|reached the limit|overlap).*",
+            Pattern.DOTALL);
+    private static final Pattern FATAL_ERROR = Pattern.compile(
+            "(?i).*(does not exist|not found|no such|invalid|illegal|not valid|permission|not authori[sz]ed|forbidden|unauthori[sz]ed|access denied|\\b40[134]\\b).*",
+            Pattern.DOTALL);
+
+    private final int retries;
+    private final RetryPolicy retryPolicy;
+    private final long capacityPollIntervalMillis;
+    private final long maxWaitMillis;
+
+    /**
+     * @param retries        the number of attempts after the first one.
+     * @param maxDelayMillis the longest wait between two attempts.
+     */
+    public StartRunRetryScheduler(int retries, long maxDelayMillis) {
+        this(retries, INITIAL_DELAY_MILLIS, maxDelayMillis, CAPACITY_POLL_INTERVAL_MILLIS);
+    }
+
+    public StartRunRetryScheduler(int retries, long initialDelayMillis, long maxDelayMillis, long capacityPollIntervalMillis) {
+        this(Math.max(0, retries), initialDelayMillis, maxDelayMillis, capacityPollIntervalMillis, 0);
+    }
+
+    private StartRunRetryScheduler(int retries, long initialDelayMillis, long maxDelayMillis, long capacityPollIntervalMillis,
+                                   long maxWaitMillis) {
+        this.retries = retries;
+        this.retryPolicy = new RetryPolicy(retries, Math.min(initialDelayMillis, maxDelayMillis), maxDelayMillis);
+        this.capacityPollIntervalMillis = Math.max(1, capacityPollIntervalMillis);
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * @param maxWaitMillis how long to keep attempting, counted from the call to {@link #retry}.
+     */
+    public static StartRunRetryScheduler untilEarliestTimeslot(long maxWaitMillis) {
+        return untilEarliestTimeslot(maxWaitMillis, INITIAL_DELAY_MILLIS, EARLIEST_TIMESLOT_MAX_DELAY_MILLIS, CAPACITY_POLL_INTERVAL_MILLIS);
+    }
+
+    public static StartRunRetryScheduler untilEarliestTimeslot(long maxWaitMillis, long initialDelayMillis, long maxDelayMillis,
+                                                               long capacityPollIntervalMillis) {
+        return new StartRunRetryScheduler(Integer.MAX_VALUE, initialDelayMillis, maxDelayMillis, capacityPollIntervalMillis,
+                Math.max(0, maxWaitMillis));
+    }
+
+    public static FailureKind classify(Exception ex) {
+        String message = ex.getMessage() == null ? "" : ex.getMessage();
+        if (ex instanceof PcException && FATAL_ERROR.matcher(message).matches())
+            return FailureKind.FATAL;
+        if (CAPACITY_ERROR.matcher(message).matches())
+            return FailureKind.CAPACITY;
+        return FailureKind.TRANSIENT;
+    }
+
+    /**
+     * @param failure       why the first start failed.
+     * @param start         starts the run.
+     * @param capacityProbe tells whether capacity freed up since the last failure, or null to wait the full delay.
+     * @return what the successful start returned, or null when no attempt succeeded.
+     */
+    public <T> T retry(Exception failure, TaskListener listener, RetryPolicy.RetryableOperation<T> start,
+                       CapacityProbe capacityProbe) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + maxWaitMillis;
+        for (int retry = 1; retry <= retries; retry++) {
+            FailureKind failureKind = classify(failure);
+            if (failureKind == FailureKind.FATAL) {
+                log(listener, "The start failure cannot be solved by attempting again: the run is not started.", true);
+                return null;
+            }
+            long delay = retryPolicy.getDelayMillis(retry);
+            if (maxWaitMillis > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    log(listener, "No timeslot became available within %d minutes: the run is not started.", true,
+                            maxWaitMillis / 60_000);
+                    return null;
+                }
+                delay = Math.min(delay, remaining);
+                log(listener, "Start failure classified as %s. Attempting to start again within %d seconds. Minutes left to wait: %d.", true,
+                        failureKind, delay / 1000, (remaining + 59_999) / 60_000);
+            } else {
+                log(listener, "Start failure classified as %s. Attempting to start again within %d seconds. Attempts remaining: %d.", true,
+                        failureKind, delay / 1000, retries - retry + 1);
+            }
+            if (failureKind == FailureKind.CAPACITY && capacityProbe != null)
+                waitForCapacity(delay, capacityProbe, listener);
+            else
+                Thread.sleep(delay);
+            try {
+                return start.run();
+            } catch (IOException | PcException ex) {
+                if (maxWaitMillis > 0)
+                    log(listener, "StartRun attempt %d failed. Error: %s", true, retry + 1, ex.getMessage());
+                else
+                    log(listener, "StartRun retry %d of %d failed. Error: %s", true, retry, retries, ex.getMessage());
+                failure = ex;
+            }
+        }
+        return null;
+    }
+
+    private void waitForCapacity(long delay, CapacityProbe capacityProbe, TaskListener listener) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + delay;
+        for (long remaining = delay; remaining > 0; remaining = deadline - System.currentTimeMillis()) {
+            Thread.sleep(Math.min(capacityPollIntervalMillis, remaining));
+            try {
+                if (capacityProbe.isCapacityAvailable()) {
+                    log(listener, "Capacity freed up: attempting to start right away.", true);
+                    return;
+                }
+            } catch (IOException | PcException ex) {
+                // the probe only shortens the wait: the start is attempted at the deadline anyway
+            }
+        }
+    }
+
+    public enum FailureKind {
+        CAPACITY, TRANSIENT, FATAL
+    }
+
+    @FunctionalInterface
+    public interface CapacityProbe {
+        boolean isCapacityAvailable() throws IOException, PcException;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun.helper;
+
+import com.microfocus.performancecenter.integration.common.helpers.utils.PropertiesFileHelper;
+import jenkins.model.Jenkins;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Digest of the content each test was last created or updated from, per LoadRunner Enterprise project, test folder
+ * and test name, with the ID of the test. A test run step creating its test from unchanged content uses that test
+ * instead of sending the same content again. The store is kept in JENKINS_HOME, so that it is shared by all jobs.
+ */
+public class TestContentDigestStore {
+
+    private static final String STORE_FILE = "lre-test-content-digests.properties";
+    private static TestContentDigestStore shared;
+
+    private final File storeFile;
+    private final Properties entries;
+
+    /**
+     * @param storeFile where the digests are kept, or null to keep them in memory only.
+     */
+    public TestContentDigestStore(File storeFile) {
+        this.storeFile = storeFile;
+        this.entries = PropertiesFileHelper.load(storeFile);
+    }
+
+    public static synchronized TestContentDigestStore shared() {
+        if (shared == null) {
+            Jenkins jenkins = Jenkins.getInstanceOrNull();
+            shared = new TestContentDigestStore(jenkins == null ? null : new File(jenkins.getRootDir(), STORE_FILE));
+        }
+        return shared;
+    }
+
+    public static String key(String pcServerName, String almDomain, String almProject, String testFolderPath, String testName) {
+        return String.format("%s|%s|%s|%s|%s", pcServerName, almDomain, almProject, testFolderPath, testName)
+                .replace('\\', '/').toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the ID of the test last created or updated from content with the same digest, or null if there is none.
+     */
+    public synchronized String getTestId(String key, String digest) {
+        return PropertiesFileHelper.getIdOfDigestEntry(entries.getProperty(key), digest);
+    }
+
+    public synchronized void record(String key, String digest, String testId) throws IOException {
+        entries.setProperty(key, PropertiesFileHelper.toDigestEntry(digest, testId));
+        save();
+    }
+
+    // the test was changed or deleted outside of the step: its next content is sent again
+    public synchronized void forget(String key) throws IOException {
+        if (entries.remove(key) != null)
+            save();
+    }
+
+    private void save() throws IOException {
+        if (storeFile != null)
+            PropertiesFileHelper.store(storeFile, entries, "LoadRunner Enterprise test content digests");
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun.helper;
+
+import java.util.Locale;
+
+/**
+ * Timeslot and test instance resolved for a test ahead of its run. The reservation is only used by a run of the same
+ * test in the same project, with the same post run action and searching for an opened timeslot.
+ */
+public final class TimeslotReservation {
+
+    private final String key;
+    private final int testId;
+    private final int timeslotId;
+    private final int timeslotTestInstanceId;
+    private final int testInstanceId;
+
+    /**
+     * @param key                    the test and the timeslot settings the reservation was made for, see {@link #key}.
+     * @param timeslotId             the open timeslot found for the test, or -1 when the run has to create one.
+     * @param timeslotTestInstanceId the test instance the timeslot is defined to run, or 0 when it has none.
+     * @param testInstanceId         the test instance to run, found or created automatically.
+     */
+    public TimeslotReservation(String key, int testId, int timeslotId, int timeslotTestInstanceId, int testInstanceId) {
+        this.key = key;
+        this.testId = testId;
+        this.timeslotId = timeslotId;
+        this.timeslotTestInstanceId = timeslotTestInstanceId;
+        this.testInstanceId = testInstanceId;
+    }
+
+    public static String key(String pcServerName, String almDomain, String almProject, int testId, String postRunAction,
+                             boolean searchTimeslot) {
+        return String.format("%s|%s|%s|%d|%s|%s", pcServerName, almDomain, almProject, testId, postRunAction,
+                searchTimeslot).toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isFor(String key) {
+        return this.key.equals(key);
+    }
+
+    public int getTestId() {
+        return testId;
+    }
+
+    public int getTimeslotId() {
+        return timeslotId;
+    }
+
+    public int getTimeslotTestInstanceId() {
+        return timeslotTestInstanceId;
+    }
+
+    public int getTestInstanceId() {
+        return testInstanceId;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[TestID='%s', TimeslotID='%s', TestInstanceID='%s']",
+                testId, timeslotId > 0 ? timeslotId : "Will be created", testInstanceId);
+    }
+}
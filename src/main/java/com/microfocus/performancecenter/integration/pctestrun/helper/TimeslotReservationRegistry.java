@@ -0,0 +1,103 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun.helper;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static com.microfocus.performancecenter.integration.common.helpers.utils.LogHelper.log;
+
+/**
+ * Timeslot reservations started earlier in a build, kept until its test run step takes them over.
+ */
+public final class TimeslotReservationRegistry {
+
+    private static final Map<String, Future<TimeslotReservation>> PENDING = new HashMap<>();
+
+    private TimeslotReservationRegistry() {
+    }
+
+    public static void register(Run<?, ?> build, Future<TimeslotReservation> reservation) {
+        Future<TimeslotReservation> previous;
+        synchronized (PENDING) {
+            previous = PENDING.put(build.getExternalizableId(), reservation);
+        }
+        // only the latest reservation step of the build is used
+        if (previous != null)
+            previous.cancel(true);
+    }
+
+    /**
+     * Waits for the timeslot reservation of the build, if any.
+     *
+     * @return the reservation, or null when the build has none or when it failed: the test run step then searches
+     * the timeslot itself.
+     */
+    public static TimeslotReservation await(Run<?, ?> build, TaskListener listener) throws InterruptedException {
+        Future<TimeslotReservation> reservation;
+        synchronized (PENDING) {
+            reservation = PENDING.remove(build.getExternalizableId());
+        }
+        if (reservation == null)
+            return null;
+        if (!reservation.isDone())
+            log(listener, "Waiting for the timeslot reservation started earlier in the build to complete...", true);
+        try {
+            TimeslotReservation timeslotReservation = reservation.get();
+            if (timeslotReservation != null)
+                log(listener, "Using the timeslot reservation made earlier in the build: %s", true, timeslotReservation);
+            return timeslotReservation;
+        } catch (ExecutionException ex) {
+            log(listener, "The timeslot reservation failed: %s. The timeslot will be searched again.", true, ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            reservation.cancel(true);
+            throw ex;
+        }
+        return null;
+    }
+
+    /**
+     * Drops the reservations of builds that completed without a test run step.
+     */
+    @Extension
+    public static final class TimeslotReservationRunListener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(Run<?, ?> build, @Nonnull TaskListener listener) {
+            Future<TimeslotReservation> reservation;
+            synchronized (PENDING) {
+                reservation = PENDING.remove(build.getExternalizableId());
+            }
+            if (reservation != null)
+                reservation.cancel(true);
+        }
+    }
+}
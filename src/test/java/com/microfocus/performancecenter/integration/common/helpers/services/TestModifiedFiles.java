@@ -0,0 +1,58 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.services;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestModifiedFiles {
+
+    @Test
+    public void testBuildsWithUnsyncedChangesAreNotTheBaseline() {
+        System.out.println("Testing the baseline of a sync after dry runs");
+        // successful builds 5, 4 and 3, of which 5 and 4 did not send their changes
+        Set<Integer> unsynced = new HashSet<>(Arrays.asList(5, 4));
+        Integer baseline = ModifiedFiles.findBaseline(5, unsynced::contains, build -> build > 3 ? build - 1 : null);
+        Assert.assertEquals(Integer.valueOf(3), baseline);
+    }
+
+    @Test
+    public void testNoBaselineWhenNoBuildSentItsChanges() {
+        System.out.println("Testing the baseline of a sync after dry runs only");
+        Integer baseline = ModifiedFiles.findBaseline(2, build -> true, build -> build > 1 ? build - 1 : null);
+        Assert.assertNull(baseline);
+        Assert.assertNull(ModifiedFiles.findBaseline(null, build -> false, build -> null));
+    }
+
+    @Test
+    public void testLastSuccessIsTheBaseline() {
+        System.out.println("Testing the baseline of a sync after a complete sync");
+        Assert.assertEquals(Integer.valueOf(7), ModifiedFiles.findBaseline(7, build -> false, build -> build - 1));
+    }
+}
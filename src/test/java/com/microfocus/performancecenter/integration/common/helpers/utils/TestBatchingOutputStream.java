@@ -0,0 +1,82 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestBatchingOutputStream {
+
+    @Test
+    public void testLinesAreSentInBatches() throws Exception {
+        System.out.println("Testing that console lines are sent in batches");
+        CountingOutputStream target = new CountingOutputStream();
+        try (BatchingOutputStream output = new BatchingOutputStream(target, 1024, 60000)) {
+            PrintStream printStream = new PrintStream(output, true, "UTF-8");
+            for (int i = 0; i < 100; i++)
+                printStream.println("line " + i);
+            Assert.assertTrue("Expected a few large writes, got " + target.writes.get(), target.writes.get() <= 2);
+        }
+        String content = new String(target.content.toByteArray(), StandardCharsets.UTF_8);
+        Assert.assertTrue(content.startsWith("line 0"));
+        Assert.assertTrue(content.contains("line 99"));
+    }
+
+    @Test
+    public void testBufferIsFlushedAfterInterval() throws Exception {
+        System.out.println("Testing that the buffer is flushed once the interval elapsed");
+        CountingOutputStream target = new CountingOutputStream();
+        try (BatchingOutputStream output = new BatchingOutputStream(target, 1024, 50)) {
+            output.write("heartbeat\n".getBytes(StandardCharsets.UTF_8));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (target.content.size() == 0 && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+            Assert.assertEquals("heartbeat\n", new String(target.content.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private final AtomicInteger writes = new AtomicInteger();
+
+        @Override
+        public synchronized void write(int b) {
+            writes.incrementAndGet();
+            content.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            writes.incrementAndGet();
+            content.write(bytes, offset, length);
+        }
+    }
+}
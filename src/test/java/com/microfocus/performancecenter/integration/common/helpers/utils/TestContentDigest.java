@@ -0,0 +1,79 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import com.microfocus.performancecenter.integration.common.helpers.compressor.Compressor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestContentDigest {
+
+    @Test
+    public void testDigestComputedWhileCompressingIsTheFolderDigest() throws IOException {
+        System.out.println("Testing the digest of a script computed while compressing it");
+        Path script = Files.createTempDirectory("script");
+        File archive = File.createTempFile("script", ".zip");
+        try {
+            Files.write(script.resolve("Action.c"), "Action() { return 0; }".getBytes(StandardCharsets.UTF_8));
+            Files.createDirectories(script.resolve("data"));
+            Files.write(script.resolve("data").resolve("users.dat"), "user1\nuser2\n".getBytes(StandardCharsets.UTF_8));
+
+            String digest = new Compressor().compressDirectoryToFileWithDigest(script.toString(), archive.getPath(), null);
+            Assert.assertEquals(ContentDigest.ofFolder(script), digest);
+            Assert.assertTrue(archive.length() > 0);
+
+            Files.write(script.resolve("data").resolve("users.dat"), "user1\n".getBytes(StandardCharsets.UTF_8));
+            Assert.assertNotEquals(digest, ContentDigest.ofFolder(script));
+        } finally {
+            Files.deleteIfExists(script.resolve("data").resolve("users.dat"));
+            Files.deleteIfExists(script.resolve("data"));
+            Files.deleteIfExists(script.resolve("Action.c"));
+            Files.deleteIfExists(script);
+            Files.deleteIfExists(archive.toPath());
+        }
+    }
+
+    @Test
+    public void testRenamedFileChangesTheFolderDigest() throws IOException {
+        System.out.println("Testing the digest of a folder with a renamed file");
+        Path folder = Files.createTempDirectory("script");
+        try {
+            Files.write(folder.resolve("a.txt"), "content".getBytes(StandardCharsets.UTF_8));
+            String digest = ContentDigest.ofFolder(folder);
+            Files.move(folder.resolve("a.txt"), folder.resolve("b.txt"));
+            Assert.assertNotEquals(digest, ContentDigest.ofFolder(folder));
+        } finally {
+            Files.deleteIfExists(folder.resolve("a.txt"));
+            Files.deleteIfExists(folder.resolve("b.txt"));
+            Files.deleteIfExists(folder);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+import hudson.model.TaskListener;
+import org.apache.http.client.ClientProtocolException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestRetryPolicy {
+
+    @Test
+    public void testDelayGrowsAndIsBounded() {
+        System.out.println("Testing retry delays");
+        RetryPolicy retryPolicy = new RetryPolicy(5, 1000, 4000);
+        for (int retry = 1; retry <= 5; retry++) {
+            long expected = Math.min(1000L << (retry - 1), 4000L);
+            long delay = retryPolicy.getDelayMillis(retry);
+            Assert.assertTrue("Delay too short: " + delay, delay >= expected / 2);
+            Assert.assertTrue("Delay too long: " + delay, delay <= expected);
+        }
+    }
+
+    @Test
+    public void testRetriesTransientFailuresUntilSuccess() throws Exception {
+        System.out.println("Testing retry of transient failures");
+        RetryPolicy retryPolicy = new RetryPolicy(3, 0, 0);
+        AtomicInteger calls = new AtomicInteger();
+        int value = retryPolicy.execute("operation", null, TaskListener.NULL, () -> {
+            if (calls.incrementAndGet() < 3)
+                throw new SocketTimeoutException("Read timed out");
+            return 42;
+        });
+        Assert.assertEquals(42, value);
+        Assert.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() throws Exception {
+        System.out.println("Testing retry gives up after the maximum number of attempts");
+        RetryPolicy retryPolicy = new RetryPolicy(2, 0, 0);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            retryPolicy.execute("operation", null, TaskListener.NULL, () -> {
+                calls.incrementAndGet();
+                throw new SocketException("Connection reset");
+            });
+            Assert.fail("IOException expected");
+        } catch (IOException ex) {
+            Assert.assertEquals(2, calls.get());
+        }
+    }
+
+    @Test
+    public void testFailuresAreClassified() {
+        System.out.println("Testing which failures are retried");
+        Assert.assertTrue(RetryPolicy.isTransient(new ConnectException("Connection refused")));
+        Assert.assertTrue(RetryPolicy.isTransient(new SocketException("Connection reset")));
+        Assert.assertTrue(RetryPolicy.isTransient(new SocketTimeoutException("Read timed out")));
+        Assert.assertFalse(RetryPolicy.isTransient(new InterruptedIOException("Build aborted")));
+        Assert.assertFalse(RetryPolicy.isTransient(new ClientProtocolException("Unexpected response")));
+        Assert.assertFalse(RetryPolicy.isTransient(new FileNotFoundException("script.zip")));
+        Assert.assertTrue(RetryPolicy.isTransient(new PcException("HTTP/1.1 503 Service Unavailable")));
+        Assert.assertFalse(RetryPolicy.isTransient(new PcException("Error: license limit of 500 Vusers")));
+        Assert.assertFalse(RetryPolicy.isTransient(new PcException("Failed to retrieve run 7. Error code: 1300")));
+    }
+
+    @Test
+    public void testCircuitBreakerOpensAfterConsecutiveFailures() throws Exception {
+        System.out.println("Testing circuit breaker");
+        CircuitBreaker circuitBreaker = new CircuitBreaker("server", 2, 60_000);
+        circuitBreaker.recordFailure();
+        Assert.assertFalse(circuitBreaker.isOpen());
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+        Assert.assertFalse(circuitBreaker.isOpen());
+        circuitBreaker.recordFailure();
+        Assert.assertTrue(circuitBreaker.isOpen());
+
+        RetryPolicy retryPolicy = new RetryPolicy(3, 0, 0);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            retryPolicy.execute("operation", circuitBreaker, TaskListener.NULL, calls::incrementAndGet);
+            Assert.fail("CircuitBreaker.OpenException expected");
+        } catch (CircuitBreaker.OpenException ex) {
+            Assert.assertEquals(0, calls.get());
+            Assert.assertFalse(RetryPolicy.isTransient(ex));
+        }
+    }
+
+    @Test
+    public void testCircuitBreakerLetsOneTrialThroughAfterCooldown() throws Exception {
+        System.out.println("Testing circuit breaker trial request after cooldown");
+        CircuitBreaker circuitBreaker = new CircuitBreaker("server", 1, 0);
+        circuitBreaker.recordFailure();
+        circuitBreaker.checkRequestAllowed();
+        Assert.assertTrue(circuitBreaker.isOpen());
+        circuitBreaker.recordSuccess();
+        Assert.assertFalse(circuitBreaker.isOpen());
+    }
+}
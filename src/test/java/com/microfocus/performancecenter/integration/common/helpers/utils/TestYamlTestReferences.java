@@ -0,0 +1,81 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.common.helpers.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestYamlTestReferences {
+
+    private static final String YAML_TEST = "controller: \"mycontroller\" # comment\n" +
+            "group:\n" +
+            "- group_name: \"TEstInt\"\n" +
+            "  vusers: '20'\n" +
+            "  script_path: \"plugin\\\\TEstInt\"\n" +
+            "  lg_name:\n" +
+            "  - \"LG1\"\n" +
+            "  - \"LG2\"\n" +
+            "- group_name: \"Mtours\"\n" +
+            "  vusers: 30\n" +
+            "  #script_id: 392\n" +
+            "  script_id: 394\n" +
+            "  lg_name: [\"LG2\", LG3]\n" +
+            "scheduler:\n" +
+            "  rampup: '45'\n" +
+            "  Duration: '300'\n";
+
+    @Test
+    public void testScriptReferences() {
+        System.out.println("Testing script references of a YAML test");
+        YamlTestReferences references = YamlTestReferences.parse(YAML_TEST);
+        Assert.assertEquals(Collections.singleton("plugin\\testint"), references.getScriptPaths());
+        Assert.assertEquals(Collections.singleton(394), references.getScriptIds());
+        Assert.assertTrue(references.hasScriptReferences());
+    }
+
+    @Test
+    public void testLoadRequirements() {
+        System.out.println("Testing load requirements of a YAML test");
+        YamlTestReferences references = YamlTestReferences.parse(YAML_TEST);
+        Assert.assertEquals(50, references.getTotalVusers());
+        Assert.assertEquals(0, references.getLgAmount());
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("LG1", "LG2", "LG3")), references.getLgNames());
+        Assert.assertEquals(3, references.getRequiredLoadGenerators());
+
+        YamlTestReferences withLgAmount = YamlTestReferences.parse("lg_amount: 2\n" + YAML_TEST);
+        Assert.assertEquals(2, withLgAmount.getRequiredLoadGenerators());
+    }
+
+    @Test
+    public void testNormalizeScriptPath() {
+        System.out.println("Testing normalization of script paths");
+        Assert.assertEquals("scripts\\web\\mtours", YamlTestReferences.normalizeScriptPath("Subject\\\\Scripts\\\\Web\\\\Mtours"));
+        Assert.assertEquals("scripts\\web\\mtours", YamlTestReferences.normalizeScriptPath("scripts/web/Mtours/"));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestPcGitSyncModel {
+
+    @Test
+    public void testTargetIsParsed() {
+        System.out.println("Testing parsing of an additional project of the sync");
+        Assert.assertArrayEquals(new String[]{"server2", "DEFAULT", "project2"},
+                PcGitSyncModel.parseTarget(" server2 ; DEFAULT ;project2 "));
+    }
+
+    @Test
+    public void testInvalidTargetsAreRejected() {
+        System.out.println("Testing rejection of additional projects not in the format server;domain;project");
+        Assert.assertNull(PcGitSyncModel.parseTarget("server2;DEFAULT"));
+        Assert.assertNull(PcGitSyncModel.parseTarget("server2;DEFAULT;project2;extra"));
+        Assert.assertNull(PcGitSyncModel.parseTarget("server2;DEFAULT;project2;"));
+        Assert.assertNull(PcGitSyncModel.parseTarget("server2; ;project2"));
+        Assert.assertNull(PcGitSyncModel.parseTarget("server2,DEFAULT,project2"));
+    }
+
+    @Test
+    public void testCommentsAndEmptyLinesAreNotTargets() {
+        System.out.println("Testing comments and empty lines of the additional projects");
+        Assert.assertFalse(PcGitSyncModel.isTargetLine("  "));
+        Assert.assertFalse(PcGitSyncModel.isTargetLine("# server2;DEFAULT;project2"));
+        Assert.assertTrue(PcGitSyncModel.isTargetLine("server2;DEFAULT"));
+    }
+}
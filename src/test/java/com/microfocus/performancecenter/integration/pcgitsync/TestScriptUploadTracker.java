@@ -0,0 +1,98 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync;
+
+import com.microfocus.performancecenter.integration.common.helpers.utils.AffectedFolder;
+import com.microfocus.performancecenter.integration.common.helpers.utils.YamlTestReferences;
+import com.microfocus.performancecenter.integration.pcgitsync.helper.ScriptUploadTracker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestScriptUploadTracker {
+
+    private static final Path WORKSPACE = Paths.get("workspace").toAbsolutePath();
+    private static final AffectedFolder WEB1 = script("web1");
+    private static final AffectedFolder WEB2 = script("web2");
+    private static final AffectedFolder WEB3 = script("web3");
+
+    private static AffectedFolder script(String name) {
+        return new AffectedFolder(WORKSPACE.resolve("scripts").resolve(name), WORKSPACE);
+    }
+
+    private static YamlTestReferences test(String... scriptPaths) {
+        StringBuilder yaml = new StringBuilder("group:\n");
+        for (String scriptPath : scriptPaths)
+            yaml.append("- group_name: \"").append(scriptPath).append("\"\n  vusers: 1\n  script_path: \"")
+                    .append(scriptPath.replace("\\", "\\\\")).append("\"\n");
+        return YamlTestReferences.parse(yaml.toString());
+    }
+
+    @Test
+    public void testTestWaitsForItsScriptsOnly() {
+        System.out.println("Testing a test waiting for the upload of its script");
+        ScriptUploadTracker tracker = new ScriptUploadTracker(Arrays.asList(WEB1, WEB2));
+        CompletableFuture<Void> dependencies = tracker.getDependencies(test("scripts\\web1"));
+        Assert.assertFalse(dependencies.isDone());
+        tracker.uploadDone(WEB1);
+        Assert.assertTrue(dependencies.isDone());
+    }
+
+    @Test
+    public void testUnknownScriptWaitsForAllUploads() {
+        System.out.println("Testing a test referencing a script that is neither uploaded nor known");
+        ScriptUploadTracker tracker = new ScriptUploadTracker(Arrays.asList(WEB1, WEB2));
+        CompletableFuture<Void> dependencies = tracker.getDependencies(test("scripts\\web1", "Subject\\other\\web9"));
+        tracker.uploadDone(WEB1);
+        Assert.assertFalse(dependencies.isDone());
+        tracker.uploadDone(WEB2);
+        Assert.assertTrue(dependencies.isDone());
+    }
+
+    @Test
+    public void testExistingScriptIsNotWaitedFor() {
+        System.out.println("Testing a test referencing a script that is already in LoadRunner Enterprise");
+        ScriptUploadTracker tracker = new ScriptUploadTracker(Arrays.asList(WEB1, WEB2), Collections.singletonList(WEB3));
+        CompletableFuture<Void> dependencies = tracker.getDependencies(test("scripts\\web1", "scripts\\web3"));
+        tracker.uploadDone(WEB1);
+        Assert.assertTrue(dependencies.isDone());
+        Assert.assertTrue(tracker.getDependencies(test("scripts\\web3")).isDone());
+    }
+
+    @Test
+    public void testTestWithoutReferencesWaitsForAllUploads() {
+        System.out.println("Testing a test without script references");
+        ScriptUploadTracker tracker = new ScriptUploadTracker(Collections.singletonList(WEB1));
+        CompletableFuture<Void> dependencies = tracker.getDependencies(null);
+        Assert.assertFalse(dependencies.isDone());
+        tracker.allUploadsDone();
+        Assert.assertTrue(dependencies.isDone());
+    }
+}
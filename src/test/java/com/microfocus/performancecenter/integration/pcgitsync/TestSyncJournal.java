@@ -0,0 +1,53 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync;
+
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncJournal;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestSyncJournal {
+
+    @Test
+    public void testDeletedScriptIsUploadedAgain() throws Exception {
+        System.out.println("Testing a script deleted by a sync that did not complete is not skipped when restored");
+        File workspace = new File(Files.createTempDirectory("journal").toFile(), "workspace");
+        SyncJournal journal = SyncJournal.open(workspace, "target");
+        journal.scriptUploaded("scripts/web1", "digest1");
+        journal.scriptUploaded("scripts/web2", "digest2");
+        Assert.assertEquals(2, SyncJournal.open(workspace, "target").getResumedEntries());
+
+        journal.scriptDeleted("scripts/web1");
+        SyncJournal resumed = SyncJournal.open(workspace, "target");
+        Assert.assertFalse(resumed.isScriptUploaded("scripts/web1", "digest1"));
+        Assert.assertTrue(resumed.isScriptUploaded("scripts/web2", "digest2"));
+        Assert.assertEquals(Collections.singleton("scripts/web2"), resumed.getUploadedScripts());
+        resumed.complete();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync;
+
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncLockRegistry;
+import hudson.model.TaskListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestSyncLockRegistry {
+
+    @Test
+    public void testNewerBuildSupersedesOlderOne() throws Exception {
+        System.out.println("Testing that a newer build supersedes an older one on the same project");
+        try (SyncLockRegistry.SyncLock older = SyncLockRegistry.register(Collections.singletonList("server/DOMAIN/project"), "job", 1);
+             SyncLockRegistry.SyncLock newer = SyncLockRegistry.register(Collections.singletonList("server/domain/PROJECT"), "job", 2)) {
+            Assert.assertEquals(2, older.getSupersedingBuild());
+            Assert.assertEquals(0, newer.getSupersedingBuild());
+        }
+    }
+
+    @Test
+    public void testOtherJobsAndProjectsDoNotSupersede() throws Exception {
+        System.out.println("Testing that other jobs and other projects do not supersede a build");
+        try (SyncLockRegistry.SyncLock build = SyncLockRegistry.register(Collections.singletonList("server/domain/project"), "job", 1);
+             SyncLockRegistry.SyncLock otherJob = SyncLockRegistry.register(Collections.singletonList("server/domain/project"), "other job", 5);
+             SyncLockRegistry.SyncLock otherProject = SyncLockRegistry.register(Collections.singletonList("server/domain/other"), "job", 6)) {
+            Assert.assertEquals(0, build.getSupersedingBuild());
+        }
+    }
+
+    @Test
+    public void testSyncsOfTheSameProjectAreSerialized() throws Exception {
+        System.out.println("Testing that syncs of the same project are serialized");
+        SyncLockRegistry.SyncLock first = SyncLockRegistry.register(Collections.singletonList("server/domain/serialized"), "job", 1);
+        first.acquire(TaskListener.NULL);
+        AtomicBoolean secondAcquired = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread second = new Thread(() -> {
+            try (SyncLockRegistry.SyncLock lock = SyncLockRegistry.register(Collections.singletonList("server/domain/serialized"), "other job", 1)) {
+                lock.acquire(TaskListener.NULL);
+                secondAcquired.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        });
+        second.start();
+        Assert.assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+        Assert.assertFalse(secondAcquired.get());
+        first.close();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(secondAcquired.get());
+    }
+}
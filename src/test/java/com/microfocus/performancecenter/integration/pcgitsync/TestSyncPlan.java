@@ -0,0 +1,53 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync;
+
+import com.microfocus.performancecenter.integration.pcgitsync.helper.SyncPlan;
+import net.sf.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestSyncPlan {
+
+    @Test
+    public void testOrphanReconciliationIsPlanned() {
+        System.out.println("Testing the orphan reconciliation in the plan of a dry run");
+        SyncPlan syncPlan = new SyncPlan("server", "DOMAIN", "project", "Subject\\scripts", "all files", false);
+        syncPlan.addScriptToUpload("scripts\\web1", "Subject\\scripts", 1024);
+        syncPlan.setOrphanReconciliation("Subject\\scripts", 20, 12);
+        JSONObject orphanReconciliation = syncPlan.toJSON().getJSONObject("orphanReconciliation");
+        Assert.assertEquals("Subject\\scripts", orphanReconciliation.getString("subjectRoot"));
+        Assert.assertEquals(20, orphanReconciliation.getInt("threshold"));
+        Assert.assertEquals(12, orphanReconciliation.getInt("localScripts"));
+    }
+
+    @Test
+    public void testNoOrphanReconciliationByDefault() {
+        System.out.println("Testing a plan without orphan reconciliation");
+        SyncPlan syncPlan = new SyncPlan("server", "DOMAIN", "project", "Subject\\scripts", "all files", true);
+        Assert.assertTrue(syncPlan.toJSON().getJSONObject("orphanReconciliation").isNullObject());
+        Assert.assertEquals(0, syncPlan.getTotalCompressedBytes());
+    }
+}
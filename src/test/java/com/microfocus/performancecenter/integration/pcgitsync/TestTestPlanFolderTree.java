@@ -0,0 +1,77 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pcgitsync;
+
+import com.microfocus.performancecenter.integration.pcgitsync.helper.TestPlanFolderTree;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestTestPlanFolderTree {
+
+    private TestPlanFolderTree tree;
+
+    @Before
+    public void setUp() {
+        tree = new TestPlanFolderTree();
+        tree.add("Subject\\Scripts");
+        tree.add("Subject\\Scripts\\Web");
+    }
+
+    @Test
+    public void testContainsIsCaseInsensitive() {
+        System.out.println("Testing folder lookup in Test Plan folder tree");
+        Assert.assertTrue(tree.contains("Subject"));
+        Assert.assertTrue(tree.contains("subject\\scripts\\WEB"));
+        Assert.assertTrue(tree.contains("Scripts/Web"));
+        Assert.assertFalse(tree.contains("Subject\\Scripts\\Mobile"));
+    }
+
+    @Test
+    public void testMissingFoldersByDepth() {
+        System.out.println("Testing computation of missing Test Plan folders");
+        List<List<String>> missing = tree.getMissingFoldersByDepth(Arrays.asList(
+                "Subject\\Scripts\\Web",
+                "Subject\\Scripts\\Mobile\\Android",
+                "Subject\\scripts\\mobile\\iOS",
+                "Subject\\Tests"));
+
+        Assert.assertEquals(3, missing.size());
+        Assert.assertEquals(Arrays.asList("Subject\\Tests"), missing.get(0));
+        Assert.assertEquals(Arrays.asList("Subject\\Scripts\\Mobile"), missing.get(1));
+        Assert.assertEquals(Arrays.asList("Subject\\Scripts\\Mobile\\Android", "Subject\\scripts\\mobile\\iOS"), missing.get(2));
+    }
+
+    @Test
+    public void testParentAndName() {
+        System.out.println("Testing parent and name of Test Plan folder");
+        Assert.assertEquals("Subject\\Scripts", TestPlanFolderTree.getParentPath("Subject\\Scripts\\Web"));
+        Assert.assertEquals("Subject", TestPlanFolderTree.getParentPath("Subject\\Scripts"));
+        Assert.assertEquals("Web", TestPlanFolderTree.getName("Subject\\Scripts\\Web"));
+    }
+}
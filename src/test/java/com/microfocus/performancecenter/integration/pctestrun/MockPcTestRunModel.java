@@ -32,7 +32,7 @@ public class MockPcTestRunModel extends PcTestRunModel {
                               String almProject, String testToRun, String testId, String testContentToCreate, String autoTestInstanceID, String testInstanceId, String timeslotDurationHours,
                               String timeslotDurationMinutes, PostRunAction postRunAction, boolean vudsMode, String description, boolean webProtocol, String retry, String retryDelay, String retryOccurrences, String trendReportWaitTime, boolean authenticateWithToken, boolean searchTimeslot) {
         super(serverAndPort, pcServerName, credential, almDomain, almProject, testToRun, testId, testContentToCreate, autoTestInstanceID, testInstanceId, timeslotDurationHours,
-                timeslotDurationMinutes, postRunAction, vudsMode, description, "NO_TREND", null, false, null, null, retry, retryDelay, retryOccurrences, trendReportWaitTime, authenticateWithToken, searchTimeslot
+                timeslotDurationMinutes, postRunAction, vudsMode, description, "NO_TREND", null, false, null, null, retry, retryDelay, retryOccurrences, trendReportWaitTime, authenticateWithToken, searchTimeslot, null, null
         );
     }
 
@@ -0,0 +1,113 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun;
+
+import com.microfocus.performancecenter.integration.pctestrun.helper.CapacityLedger;
+import com.microfocus.performancecenter.integration.pctestrun.helper.CapacityRequirement;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestCapacityLedger {
+
+    private static final CapacityRequirement FARM = new CapacityRequirement(100, 4);
+
+    @Test
+    public void testRequirementIsReadFromYaml() {
+        System.out.println("Testing that the load of a YAML test is read from its content");
+        CapacityRequirement requirement = CapacityRequirement.fromYaml(
+                "group:\n  - group_name: \"g1\"\n    vusers: 20\n  - group_name: \"g2\"\n    vusers: 30\nlg_amount: 3\n");
+        Assert.assertEquals(50, requirement.getVusers());
+        Assert.assertEquals(3, requirement.getLoadGenerators());
+    }
+
+    @Test
+    public void testRequirementIsReadFromXml() {
+        System.out.println("Testing that the load of an XML test is read from its content");
+        CapacityRequirement requirement = CapacityRequirement.fromXml(
+                "<Test><Content><Groups><Group><Vusers>10</Vusers><Hosts><Host><Name>LG1</Name></Host></Hosts></Group>"
+                        + "<Group><Vusers>5</Vusers><Hosts><Host><Name>lg1</Name></Host><Host><Name>LG2</Name></Host></Hosts></Group>"
+                        + "</Groups></Content></Test>");
+        Assert.assertEquals(15, requirement.getVusers());
+        Assert.assertEquals(2, requirement.getLoadGenerators());
+    }
+
+    @Test
+    public void testSchedulerVusersAreNotCounted() {
+        System.out.println("Testing that the Vusers of the scheduler ramp are not counted as load");
+        CapacityRequirement requirement = CapacityRequirement.fromXml(
+                "<Test xmlns=\"http://www.hp.com/PC/REST/API\"><Content><Groups>"
+                        + "<Group><Name>g1</Name><Vusers>40</Vusers><Hosts><Host><Name>LG1</Name></Host></Hosts></Group>"
+                        + "</Groups><Scheduler><Actions>"
+                        + "<Action><StartVusers><Type>gradually</Type><Vusers>10</Vusers><Interval><Seconds>15</Seconds></Interval></StartVusers></Action>"
+                        + "<Action><StopVusers><Type>gradually</Type><Vusers>10</Vusers></StopVusers></Action>"
+                        + "</Actions></Scheduler>"
+                        + "<LGDistribution><Type>all to each group</Type><Amount>2</Amount></LGDistribution>"
+                        + "</Content></Test>");
+        Assert.assertEquals(40, requirement.getVusers());
+        Assert.assertEquals(2, requirement.getLoadGenerators());
+    }
+
+    @Test
+    public void testRequirementLargerThanTheFarmIsReported() {
+        System.out.println("Testing that a test larger than the farm is reported");
+        Assert.assertNull(CapacityLedger.exceedsCapacity(new CapacityRequirement(100, 4), FARM));
+        Assert.assertTrue(CapacityLedger.exceedsCapacity(new CapacityRequirement(150, 1), FARM).contains("150 Vusers"));
+    }
+
+    @Test
+    public void testHeldCapacityIsNotGivenTwice() throws Exception {
+        System.out.println("Testing that the capacity held by a run is not given to another one");
+        CapacityLedger ledger = new CapacityLedger();
+        CapacityLedger.Lease lease = ledger.acquire("server", new CapacityRequirement(80, 2), FARM, 0);
+        Assert.assertEquals(80, ledger.getHeld("server").getVusers());
+        Assert.assertNull(ledger.acquire("server", new CapacityRequirement(30, 1), FARM, 0));
+        Assert.assertNotNull(ledger.acquire("other", new CapacityRequirement(30, 1), FARM, 0));
+        lease.close();
+        lease.close();
+        Assert.assertEquals(0, ledger.getHeld("server").getVusers());
+    }
+
+    @Test(timeout = 5000)
+    public void testWaitingRunGetsReleasedCapacity() throws Exception {
+        System.out.println("Testing that a waiting run gets the capacity released by another one");
+        CapacityLedger ledger = new CapacityLedger();
+        CapacityLedger.Lease lease = ledger.acquire("server", new CapacityRequirement(80, 2), FARM, 0);
+        CompletableFuture<CapacityLedger.Lease> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ledger.acquire("server", new CapacityRequirement(50, 2), FARM, 4000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        });
+        Thread.sleep(100);
+        lease.close();
+        Assert.assertNotNull(waiting.get(4, TimeUnit.SECONDS));
+        Assert.assertEquals(50, ledger.getHeld("server").getVusers());
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcRunResponse;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.RunState;
+import com.microfocus.adm.performancecenter.plugins.common.rest.PcRestProxy;
+import com.microfocus.performancecenter.integration.common.helpers.result.model.junit.Testsuite;
+import com.microfocus.performancecenter.integration.common.helpers.result.model.junit.Testsuites;
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestMultiTestRunner {
+
+    private static final long MONITOR_INTERVAL_MILLIS = 50L;
+
+    // a project of its own, for the admission of its runs not to depend on the other tests
+    private static final MockPcTestRunModel ADMISSION_MODEL = new MockPcTestRunModel(PcTestBase.SERVER_AND_PORT,
+            PcTestBase.PC_SERVER_NAME, PcTestBase.CREDENTIALSID, PcTestBase.ALM_DOMAIN, "ADMISSIONPROJ",
+            PcTestBase.TEST_TO_RUN, PcTestBase.TEST_ID, PcTestBase.TEST_CONTENT_TO_CREATE, PcTestBase.TESTINSTANCEID,
+            PcTestBase.TEST_INSTANCE_ID, PcTestBase.TIMESLOT_DURATION_HOURS, PcTestBase.TIMESLOT_DURATION_MINUTES,
+            PcTestBase.POST_RUN_ACTION, PcTestBase.VUDS_MODE, PcTestBase.DESCRIPTION, PcTestBase.IS_HTTPS, PcTestBase.RETRY,
+            PcTestBase.RETRYDELAY, PcTestBase.RETRYOCCURRENCES, PcTestBase.TRENDREPORTWAITTIME,
+            PcTestBase.AUTHENTICATE_WITH_TOKEN, PcTestBase.SEARCH_TIMESLOT);
+
+    private static final MultiTestRunner.TestsuiteFactory TESTSUITES = new MultiTestRunner.TestsuiteFactory() {
+        @Override
+        public Testsuite create(String testName, int runId, PcRunResponse response, FilePath report, String errorMessage,
+                                String eventLog) {
+            Testsuite testsuite = new Testsuite();
+            testsuite.setName(response == null ? testName + ": " + errorMessage : testName);
+            return testsuite;
+        }
+
+        @Override
+        public String getReportDirectory(int runId) {
+            return "";
+        }
+    };
+
+    @Test
+    public void testAdditionalTestsAreParsed() {
+        System.out.println("Testing parsing of the additional tests of a step");
+        List<String> tests = MultiTestRunner.parseTests(" 12\r\nfolder/test.yaml,  13 \n\n,");
+        Assert.assertEquals(Arrays.asList("12", "folder/test.yaml", "13"), tests);
+        Assert.assertTrue(MultiTestRunner.parseTests(null).isEmpty());
+        Assert.assertTrue(MultiTestRunner.parseTests(" ").isEmpty());
+    }
+
+    @Test(timeout = 20000)
+    public void testResultsOfAllTestsAreCollected() throws Exception {
+        System.out.println("Testing the results of the additional tests are added to those of the main test");
+        RunStatesProxy proxy = new RunStatesProxy(2);
+        Testsuites mainTestsuites = new Testsuites();
+        mainTestsuites.getTestsuite().add(new Testsuite());
+        try (MultiTestRunner additionalRuns = new MultiTestRunner(Arrays.asList("11", "12"), 3,
+                (test, listener) -> new FakeRunClient(proxy, test), TESTSUITES, TaskListener.NULL, MONITOR_INTERVAL_MILLIS)) {
+            Assert.assertSame(mainTestsuites, additionalRuns.collect(mainTestsuites));
+            Assert.assertEquals(3, mainTestsuites.getTestsuite().size());
+        }
+        // the main test failed to start: the results of the additional tests are kept, the unknown test included
+        try (MultiTestRunner additionalRuns = new MultiTestRunner(Arrays.asList("13", "unknown"), 3,
+                (test, listener) -> new FakeRunClient(proxy, test), TESTSUITES, TaskListener.NULL, MONITOR_INTERVAL_MILLIS)) {
+            Testsuites testsuites = additionalRuns.collect(null);
+            Assert.assertEquals(2, testsuites.getTestsuite().size());
+            Assert.assertEquals("Test 13", testsuites.getTestsuite().get(0).getName());
+            Assert.assertTrue(testsuites.getTestsuite().get(1).getName().startsWith("unknown: "));
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testConcurrentRunsAreLimited() throws Exception {
+        System.out.println("Testing the runs of a step at a time, the main test included");
+        RunStatesProxy proxy = new RunStatesProxy(2);
+        try (MultiTestRunner additionalRuns = new MultiTestRunner(Arrays.asList("21", "22", "23"), 1,
+                (test, listener) -> new FakeRunClient(proxy, test), TESTSUITES, TaskListener.NULL, MONITOR_INTERVAL_MILLIS)) {
+            Thread.sleep(300);
+            Assert.assertEquals("No additional test runs along with the main test", 0, proxy.maxRunning.get());
+            Assert.assertEquals(3, additionalRuns.collect(null).getTestsuite().size());
+            Assert.assertEquals(1, proxy.maxRunning.get());
+        }
+        RunStatesProxy otherProxy = new RunStatesProxy(2);
+        try (MultiTestRunner additionalRuns = new MultiTestRunner(Arrays.asList("24", "25", "26", "27"), 2,
+                (test, listener) -> new FakeRunClient(otherProxy, test), TESTSUITES, TaskListener.NULL, MONITOR_INTERVAL_MILLIS)) {
+            while (otherProxy.maxRunning.get() == 0)
+                Thread.sleep(10);
+            Assert.assertEquals(1, otherProxy.maxRunning.get());
+            Assert.assertEquals(4, additionalRuns.collect(null).getTestsuite().size());
+            Assert.assertTrue(otherProxy.maxRunning.get() <= 2);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testRunsAreStoppedWhenAborted() throws Exception {
+        System.out.println("Testing the runs of the additional tests are stopped when the step is aborted");
+        RunStatesProxy proxy = new RunStatesProxy(0);
+        MultiTestRunner additionalRuns = new MultiTestRunner(Arrays.asList("31", "32"), 3,
+                (test, listener) -> new FakeRunClient(proxy, test), TESTSUITES, TaskListener.NULL, MONITOR_INTERVAL_MILLIS);
+        while (!proxy.polls.keySet().containsAll(Arrays.asList(31, 32)))
+            Thread.sleep(10);
+        additionalRuns.close();
+        Assert.assertEquals(new HashSet<>(Arrays.asList(31, 32)), proxy.stopped);
+    }
+
+    @Test(timeout = 20000)
+    public void testAdditionalTestIsAdmittedOnceTheMainRunIsOver() throws Exception {
+        System.out.println("Testing an additional test waiting for the admission held by the main test");
+        RunStatesProxy proxy = new RunStatesProxy(0);
+        proxy.states.put(Integer.parseInt(PcTestBase.RUN_ID), RunState.FINISHED);
+        PcTestRunClient mainClient = new AdmissionLimitedClient(proxy);
+        try {
+            int runId = mainClient.startRun();
+            try (MultiTestRunner additionalRuns = new MultiTestRunner(Collections.singletonList(PcTestBase.TEST_ID), 2,
+                    (test, listener) -> new AdmissionLimitedClient(proxy), TESTSUITES, TaskListener.NULL, MONITOR_INTERVAL_MILLIS)) {
+                mainClient.waitForRunCompletion(runId, 200);
+                Testsuites testsuites = additionalRuns.collect(new Testsuites());
+                Assert.assertEquals(1, testsuites.getTestsuite().size());
+            }
+        } finally {
+            mainClient.logout();
+        }
+    }
+
+    // answers the state of every run from the states set by the test, or FINISHED after a number of polls
+    private static class RunStatesProxy extends MockPcRestProxy {
+
+        private final int pollsToFinish;
+        private final Map<Integer, RunState> states = new ConcurrentHashMap<>();
+        private final Map<Integer, AtomicInteger> polls = new ConcurrentHashMap<>();
+        private final Set<Integer> running = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final Set<Integer> stopped = ConcurrentHashMap.newKeySet();
+        private final Pattern runUrl = Pattern.compile(Pattern.quote(getBaseURL() + "/" + RUNS_RESOURCE_NAME + "/") + "(\\d+)");
+
+        /**
+         * @param pollsToFinish the polls after which a run is finished, or 0 for the runs to go on.
+         */
+        private RunStatesProxy(int pollsToFinish) throws PcException {
+            super(PcTestBase.WEB_PROTOCOL, PcTestBase.PC_SERVER_NAME, PcTestBase.AUTHENTICATE_WITH_TOKEN, PcTestBase.ALM_DOMAIN,
+                    PcTestBase.ALM_PROJECT, PcTestBase.LOGGER);
+            this.pollsToFinish = pollsToFinish;
+        }
+
+        private void start(int runId) {
+            running.add(runId);
+            maxRunning.accumulateAndGet(running.size(), Math::max);
+        }
+
+        private RunState poll(int runId) {
+            int polled = polls.computeIfAbsent(runId, id -> new AtomicInteger()).incrementAndGet();
+            RunState state = states.get(runId);
+            if (state == null)
+                state = pollsToFinish > 0 && polled >= pollsToFinish ? RunState.FINISHED : RunState.RUNNING;
+            if (state == RunState.FINISHED)
+                running.remove(runId);
+            return state;
+        }
+
+        @Override
+        protected HttpResponse executeRequest(HttpRequestBase request) throws PcException, ClientProtocolException, IOException {
+            Matcher matcher = runUrl.matcher(request.getURI().toString());
+            if (!"GET".equals(request.getMethod()) || !matcher.matches())
+                return super.executeRequest(request);
+            int runId = Integer.parseInt(matcher.group(1));
+            RunState state = poll(runId);
+            HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+            response.setEntity(new StringEntity(PcTestBase.runResponseEntity
+                    .replace("<ID>" + PcTestBase.RUN_ID + "</ID>", "<ID>" + runId + "</ID>")
+                    .replace("*", state.value())));
+            return response;
+        }
+    }
+
+    // a run of the test ID given as an additional test, its state answered by the proxy
+    private static class FakeRunClient extends PcTestRunClient {
+
+        private final RunStatesProxy proxy;
+        private final int runId;
+
+        private FakeRunClient(RunStatesProxy proxy, String test) throws PcException {
+            super(PcTestBase.pcModel, proxy);
+            this.proxy = proxy;
+            try {
+                this.runId = Integer.parseInt(test);
+            } catch (NumberFormatException ex) {
+                throw new PcException(String.format("'%s' is not a test ID.", test));
+            }
+        }
+
+        @Override
+        public int startRun() {
+            proxy.start(runId);
+            return runId;
+        }
+
+        @Override
+        public String getTestName() {
+            return "Test " + runId;
+        }
+
+        @Override
+        public FilePath publishRunReport(int runId, String reportDirectory) {
+            return null;
+        }
+
+        @Override
+        public boolean stopRun(int runId) {
+            proxy.stopped.add(runId);
+            return true;
+        }
+    }
+
+    private static class AdmissionLimitedClient extends PcTestRunClient {
+
+        private AdmissionLimitedClient(PcRestProxy proxy) {
+            super(ADMISSION_MODEL, proxy);
+        }
+
+        @Override
+        int getMaxActiveRunsPerProject() {
+            return 1;
+        }
+
+        @Override
+        public FilePath publishRunReport(int runId, String reportDirectory) {
+            return null;
+        }
+    }
+}
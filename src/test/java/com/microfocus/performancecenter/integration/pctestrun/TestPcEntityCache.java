@@ -0,0 +1,199 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+import com.microfocus.performancecenter.integration.pctestrun.helper.PcEntityCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestPcEntityCache {
+
+    @Test
+    public void testEntityIsFetchedOnce() throws Exception {
+        System.out.println("Testing that a cached entity is fetched once");
+        PcEntityCache cache = new PcEntityCache();
+        AtomicInteger fetches = new AtomicInteger();
+        Assert.assertEquals("1", cache.get("test:1", () -> String.valueOf(fetches.incrementAndGet())));
+        Assert.assertEquals("1", cache.get("test:1", () -> String.valueOf(fetches.incrementAndGet())));
+        Assert.assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneFetch() throws Exception {
+        System.out.println("Testing that concurrent requests of an entity share a single fetch");
+        PcEntityCache cache = new PcEntityCache();
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        Thread first = new Thread(() -> {
+            try {
+                cache.get("testSets", () -> {
+                    fetchStarted.countDown();
+                    try {
+                        releaseFetch.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return fetches.incrementAndGet();
+                });
+            } catch (Exception e) {
+                e.printStackTrace(System.out);
+            }
+        });
+        first.start();
+        Assert.assertTrue(fetchStarted.await(5, TimeUnit.SECONDS));
+        Thread second = new Thread(() -> {
+            try {
+                cache.get("testSets", fetches::incrementAndGet);
+            } catch (Exception e) {
+                e.printStackTrace(System.out);
+            }
+        });
+        second.start();
+        Thread.sleep(100);
+        releaseFetch.countDown();
+        first.join(5000);
+        second.join(5000);
+        Assert.assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testExpiredEntityIsFetchedAgain() throws Exception {
+        System.out.println("Testing that an expired entity is fetched again");
+        PcEntityCache cache = new PcEntityCache();
+        AtomicInteger fetches = new AtomicInteger();
+        cache.get("timeslots:1", 50, fetches::incrementAndGet);
+        cache.get("timeslots:1", 50, fetches::incrementAndGet);
+        Assert.assertEquals(1, fetches.get());
+        Thread.sleep(100);
+        Assert.assertEquals(Integer.valueOf(2), cache.get("timeslots:1", 50, fetches::incrementAndGet));
+    }
+
+    @Test
+    public void testFailedFetchIsNotKept() throws Exception {
+        System.out.println("Testing that a failed fetch is not kept");
+        PcEntityCache cache = new PcEntityCache();
+        try {
+            cache.get("test:2", () -> {
+                throw new PcException("unavailable");
+            });
+            Assert.fail("the fetch error was not raised");
+        } catch (PcException e) {
+            Assert.assertEquals("unavailable", e.getMessage());
+        }
+        Assert.assertEquals("test 2", cache.get("test:2", () -> "test 2"));
+    }
+
+    @Test
+    public void testWaiterOfFailedFetchFetchesItself() throws Exception {
+        System.out.println("Testing that a request waiting for a failed fetch fetches the entity itself");
+        PcEntityCache cache = new PcEntityCache();
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        AtomicReference<Exception> firstError = new AtomicReference<>();
+        Thread first = new Thread(() -> {
+            try {
+                cache.get("timeslots", () -> {
+                    fetchStarted.countDown();
+                    try {
+                        releaseFetch.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new PcException("session expired");
+                });
+            } catch (Exception e) {
+                firstError.set(e);
+            }
+        });
+        first.start();
+        Assert.assertTrue(fetchStarted.await(5, TimeUnit.SECONDS));
+        AtomicReference<Object> secondResult = new AtomicReference<>();
+        Thread second = new Thread(() -> {
+            try {
+                secondResult.set(cache.get("timeslots", () -> "timeslots"));
+            } catch (Exception e) {
+                secondResult.set(e);
+            }
+        });
+        second.start();
+        Thread.sleep(100);
+        releaseFetch.countDown();
+        first.join(5000);
+        second.join(5000);
+        Assert.assertEquals("session expired", firstError.get().getMessage());
+        Assert.assertEquals("timeslots", secondResult.get());
+    }
+
+    @Test
+    public void testInvalidatedEntityIsFetchedAgain() throws Exception {
+        System.out.println("Testing that an invalidated entity is fetched again");
+        PcEntityCache cache = new PcEntityCache();
+        AtomicInteger fetches = new AtomicInteger();
+        cache.get("testInstances:1", fetches::incrementAndGet);
+        cache.invalidate("testInstances:1");
+        Assert.assertEquals(Integer.valueOf(2), cache.get("testInstances:1", fetches::incrementAndGet));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntityIsDropped() throws Exception {
+        System.out.println("Testing that the least recently used entity is dropped above the size limit");
+        PcEntityCache cache = new PcEntityCache(2);
+        AtomicInteger fetches = new AtomicInteger();
+        cache.get("a", fetches::incrementAndGet);
+        cache.get("b", fetches::incrementAndGet);
+        cache.get("a", fetches::incrementAndGet);
+        cache.get("c", fetches::incrementAndGet);
+        Assert.assertEquals(3, fetches.get());
+        cache.get("a", fetches::incrementAndGet);
+        Assert.assertEquals(3, fetches.get());
+        cache.get("b", fetches::incrementAndGet);
+        Assert.assertEquals(4, fetches.get());
+    }
+
+    @Test
+    public void testProjectsAreKeptApart() {
+        System.out.println("Testing that the shared keys of different projects differ");
+        Assert.assertEquals(PcEntityCache.key("Server", "DOMAIN", "project", "testSets"),
+                PcEntityCache.key("server", "domain", "Project", "testSets"));
+        Assert.assertNotEquals(PcEntityCache.key("server", "domain", "project", "testSets"),
+                PcEntityCache.key("server", "domain", "other", "testSets"));
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(new Locale("tr", "TR"));
+            Assert.assertEquals(PcEntityCache.key("SERVER", "DOMAIN", "PROJECT", "testSets"),
+                    PcEntityCache.key("server", "domain", "project", "testSets"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun;
+
+import com.microfocus.performancecenter.integration.pctestrun.helper.PcTarget;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestPcTarget {
+
+    private static final PcTarget PRIMARY = new PcTarget("lre1.example.com", "DEFAULT", "project1", "5");
+
+    @Test
+    public void testTargetsAreParsed() {
+        System.out.println("Testing parsing of the alternative targets");
+        List<PcTarget> targets = PcTarget.parse(" lre2.example.com ; DOMAIN2 ;project2; 184 \n\nlre3.example.com;DOMAIN3;project3;7", PRIMARY);
+        Assert.assertEquals(2, targets.size());
+        assertTarget(targets.get(0), "lre2.example.com", "DOMAIN2", "project2", "184");
+        assertTarget(targets.get(1), "lre3.example.com", "DOMAIN3", "project3", "7");
+    }
+
+    @Test
+    public void testValuesLeftOutAreTheOnesOfThePrimaryTarget() {
+        System.out.println("Testing default values of the alternative targets");
+        List<PcTarget> targets = PcTarget.parse("lre2.example.com\r\nlre2.example.com;;;184\n;DOMAIN2; ", PRIMARY);
+        Assert.assertEquals(3, targets.size());
+        assertTarget(targets.get(0), "lre2.example.com", "DEFAULT", "project1", "5");
+        assertTarget(targets.get(1), "lre2.example.com", "DEFAULT", "project1", "184");
+        assertTarget(targets.get(2), "lre1.example.com", "DOMAIN2", "project1", "5");
+    }
+
+    @Test
+    public void testNoTargets() {
+        System.out.println("Testing parsing of empty alternative targets");
+        Assert.assertTrue(PcTarget.parse(null, PRIMARY).isEmpty());
+        Assert.assertTrue(PcTarget.parse(" \n ", PRIMARY).isEmpty());
+    }
+
+    private static void assertTarget(PcTarget target, String pcServerName, String almDomain, String almProject, String testId) {
+        Assert.assertEquals(pcServerName, target.getPcServerName());
+        Assert.assertEquals(almDomain, target.getAlmDomain());
+        Assert.assertEquals(almProject, target.getAlmProject());
+        Assert.assertEquals(testId, target.getTestId());
+    }
+}
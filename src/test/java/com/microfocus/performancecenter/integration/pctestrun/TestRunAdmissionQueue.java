@@ -0,0 +1,88 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun;
+
+import com.microfocus.performancecenter.integration.pctestrun.helper.RunAdmissionQueue;
+import hudson.model.TaskListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestRunAdmissionQueue {
+
+    @Test
+    public void testNoLimitAdmitsRightAway() throws Exception {
+        System.out.println("Testing that runs are admitted right away without a limit");
+        RunAdmissionQueue queue = new RunAdmissionQueue();
+        RunAdmissionQueue.Ticket first = queue.admit("project", 0, 0, TaskListener.NULL);
+        RunAdmissionQueue.Ticket second = queue.admit("project", 0, 0, TaskListener.NULL);
+        Assert.assertEquals(2, queue.getActive("project"));
+        first.close();
+        second.close();
+        second.close();
+        Assert.assertEquals(0, queue.getActive("project"));
+    }
+
+    @Test(timeout = 5000)
+    public void testWaitingRunsAreAdmittedByPriorityThenArrival() throws Exception {
+        System.out.println("Testing that waiting runs are admitted by priority, then in arrival order");
+        RunAdmissionQueue queue = new RunAdmissionQueue();
+        RunAdmissionQueue.Ticket active = queue.admit("project", 1, 0, TaskListener.NULL);
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        Thread low = waitFor(queue, "low", 0, admitted);
+        Thread normal = waitFor(queue, "normal", 5, admitted);
+        Thread high = waitFor(queue, "high", 9, admitted);
+        while (queue.getWaiting("project") < 3)
+            Thread.sleep(10);
+        Assert.assertTrue(admitted.isEmpty());
+        active.close();
+        low.join();
+        normal.join();
+        high.join();
+        Assert.assertEquals(3, admitted.size());
+        Assert.assertEquals("high", admitted.get(0));
+        Assert.assertEquals("normal", admitted.get(1));
+        Assert.assertEquals("low", admitted.get(2));
+        Assert.assertEquals(0, queue.getActive("project"));
+    }
+
+    // each admitted run ends right away, letting the next one in
+    private static Thread waitFor(RunAdmissionQueue queue, String name, int priority, List<String> admitted) throws InterruptedException {
+        int waiting = queue.getWaiting("project");
+        Thread thread = new Thread(() -> {
+            try (RunAdmissionQueue.Ticket ignored = queue.admit("project", 1, priority, TaskListener.NULL)) {
+                admitted.add(name);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        while (queue.getWaiting("project") == waiting)
+            Thread.sleep(10);
+        return thread;
+    }
+}
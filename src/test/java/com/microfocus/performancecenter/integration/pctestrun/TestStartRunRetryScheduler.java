@@ -0,0 +1,110 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+import com.microfocus.performancecenter.integration.pctestrun.helper.StartRunRetryScheduler;
+import hudson.model.TaskListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestStartRunRetryScheduler {
+
+    @Test
+    public void testFailuresAreClassified() {
+        System.out.println("Testing classification of start failures");
+        Assert.assertEquals(StartRunRetryScheduler.FailureKind.CAPACITY,
+                StartRunRetryScheduler.classify(new PcException("Not enough load generators are available for the timeslot")));
+        Assert.assertEquals(StartRunRetryScheduler.FailureKind.FATAL,
+                StartRunRetryScheduler.classify(new PcException("Test 12 does not exist")));
+        Assert.assertEquals(StartRunRetryScheduler.FailureKind.TRANSIENT,
+                StartRunRetryScheduler.classify(new IOException("Connection reset")));
+    }
+
+    @Test
+    public void testFatalFailuresMentioningResourcesAreNotRetried() {
+        System.out.println("Testing classification of fatal start failures about timeslots and hosts");
+        Assert.assertEquals(StartRunRetryScheduler.FailureKind.FATAL,
+                StartRunRetryScheduler.classify(new PcException("Invalid timeslot duration")));
+        Assert.assertEquals(StartRunRetryScheduler.FailureKind.FATAL,
+                StartRunRetryScheduler.classify(new PcException("Timeslot 12 does not exist")));
+        Assert.assertEquals(StartRunRetryScheduler.FailureKind.TRANSIENT,
+                StartRunRetryScheduler.classify(new PcException("Failed to connect to the controller host")));
+    }
+
+    @Test
+    public void testAllAttemptsAreUsed() throws Exception {
+        System.out.println("Testing that every configured attempt is used");
+        StartRunRetryScheduler scheduler = new StartRunRetryScheduler(3, 0, 0, 1);
+        AtomicInteger attempts = new AtomicInteger();
+        Integer runId = scheduler.retry(new IOException("Read timed out"), TaskListener.NULL, () -> {
+            if (attempts.incrementAndGet() < 3)
+                throw new IOException("Read timed out");
+            return 7;
+        }, null);
+        Assert.assertEquals(Integer.valueOf(7), runId);
+        Assert.assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testFatalFailureIsNotRetried() throws Exception {
+        System.out.println("Testing that a fatal start failure is not retried");
+        StartRunRetryScheduler scheduler = new StartRunRetryScheduler(3, 0, 0, 1);
+        AtomicInteger attempts = new AtomicInteger();
+        Integer runId = scheduler.retry(new PcException("Permission denied"), TaskListener.NULL, () -> {
+            attempts.incrementAndGet();
+            return 7;
+        }, null);
+        Assert.assertNull(runId);
+        Assert.assertEquals(0, attempts.get());
+    }
+
+    @Test(timeout = 5000)
+    public void testCapacityFailureIsRetriedOnceCapacityFreesUp() throws Exception {
+        System.out.println("Testing that a capacity failure is retried as soon as capacity frees up");
+        StartRunRetryScheduler scheduler = new StartRunRetryScheduler(1, 60_000, 60_000, 10);
+        AtomicInteger probes = new AtomicInteger();
+        Integer runId = scheduler.retry(new PcException("The timeslot is busy"), TaskListener.NULL, () -> 7,
+                () -> probes.incrementAndGet() >= 3);
+        Assert.assertEquals(Integer.valueOf(7), runId);
+        Assert.assertEquals(3, probes.get());
+    }
+
+    @Test(timeout = 5000)
+    public void testEarliestTimeslotAttemptsStopAtTheDeadline() throws Exception {
+        System.out.println("Testing that the attempts for the earliest timeslot stop at the maximum wait");
+        StartRunRetryScheduler scheduler = StartRunRetryScheduler.untilEarliestTimeslot(300, 10, 10, 10);
+        AtomicInteger attempts = new AtomicInteger();
+        Integer runId = scheduler.retry(new PcException("No available timeslot"), TaskListener.NULL, () -> {
+            attempts.incrementAndGet();
+            throw new PcException("No available timeslot");
+        }, () -> false);
+        Assert.assertNull(runId);
+        Assert.assertTrue(attempts.get() > 3);
+    }
+}
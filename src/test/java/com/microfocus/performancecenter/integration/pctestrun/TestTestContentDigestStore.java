@@ -0,0 +1,76 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun;
+
+import com.microfocus.performancecenter.integration.pctestrun.helper.TestContentDigestStore;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestTestContentDigestStore {
+
+    private static final String KEY = TestContentDigestStore.key("server", "DOMAIN", "Project", "Subject\\tests", "test1");
+
+    @Test
+    public void testUnchangedContentGivesTheTestId() throws IOException {
+        System.out.println("Testing the test ID of unchanged test content");
+        TestContentDigestStore digestStore = new TestContentDigestStore(null);
+        Assert.assertNull(digestStore.getTestId(KEY, "digest1"));
+        digestStore.record(KEY, "digest1", "7");
+        Assert.assertEquals("7", digestStore.getTestId(KEY, "digest1"));
+        Assert.assertEquals("7", digestStore.getTestId(
+                TestContentDigestStore.key("SERVER", "domain", "project", "Subject/tests", "TEST1"), "digest1"));
+        Assert.assertNull(digestStore.getTestId(KEY, "digest2"));
+        Assert.assertNull(digestStore.getTestId(
+                TestContentDigestStore.key("server", "DOMAIN", "Project", "Subject\\tests", "test2"), "digest1"));
+    }
+
+    @Test
+    public void testForgottenTestIsUpdatedAgain() throws IOException {
+        System.out.println("Testing a forgotten test content digest");
+        TestContentDigestStore digestStore = new TestContentDigestStore(null);
+        digestStore.record(KEY, "digest1", "7");
+        digestStore.forget(KEY);
+        Assert.assertNull(digestStore.getTestId(KEY, "digest1"));
+    }
+
+    @Test
+    public void testDigestsAreKeptAcrossInstances() throws IOException {
+        System.out.println("Testing test content digests kept in a file");
+        File folder = Files.createTempDirectory("digests").toFile();
+        File storeFile = new File(folder, "digests.properties");
+        try {
+            new TestContentDigestStore(storeFile).record(KEY, "digest1", "7");
+            Assert.assertEquals("7", new TestContentDigestStore(storeFile).getTestId(KEY, "digest1"));
+            Assert.assertFalse(new File(folder, "digests.properties.tmp").exists());
+        } finally {
+            storeFile.delete();
+            folder.delete();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *  Certain versions of software accessible here may contain branding from Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.
+ *  This software was acquired by Micro Focus on September 1, 2017, and is now offered by OpenText.
+ *  Any reference to the HP and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE marks are the property of their respective owners.
+ *
+ * Copyright 2012-2023 Open Text
+ *
+ * The only warranties for products and services of Open Text and
+ * its affiliates and licensors (“Open Text”) are as may be set forth
+ * in the express warranty statements accompanying such products and services.
+ * Nothing herein should be construed as constituting an additional warranty.
+ * Open Text shall not be liable for technical or editorial errors or
+ * omissions contained herein. The information contained herein is subject
+ * to change without notice.
+ *
+ * Except as specifically indicated otherwise, this document contains
+ * confidential information and a valid license is required for possession,
+ * use or copying. If this work is provided to the U.S. Government,
+ * consistent with FAR 12.211 and 12.212, Commercial Computer Software,
+ * Computer Software Documentation, and Technical Data for Commercial Items are
+ * licensed to the U.S. Government under vendor's standard commercial license.
+ */
+
+package com.microfocus.performancecenter.integration.pctestrun;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PostRunAction;
+import com.microfocus.performancecenter.integration.pctestrun.helper.TimeslotReservation;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class TestTimeslotReservation {
+
+    private static final TimeslotReservation RESERVATION = new TimeslotReservation(
+            TimeslotReservation.key("pcserver", "DEFAULT", "Project", 5, "COLLATE", true), 5, 12, 0, 3);
+
+    @Test
+    public void testReservationIsUsedForTheSameSettings() {
+        System.out.println("Testing a reservation is used by a run of the same test with the same settings");
+        Assert.assertTrue(RESERVATION.isFor(TimeslotReservation.key("PCServer", "default", "project", 5, "COLLATE", true)));
+    }
+
+    @Test
+    public void testReservationIsNotUsedForOtherSettings() {
+        System.out.println("Testing a reservation is not used by a run of another test or with other settings");
+        Assert.assertFalse(RESERVATION.isFor(TimeslotReservation.key("pcserver2", "DEFAULT", "Project", 5, "COLLATE", true)));
+        Assert.assertFalse(RESERVATION.isFor(TimeslotReservation.key("pcserver", "DEFAULT", "Other", 5, "COLLATE", true)));
+        Assert.assertFalse(RESERVATION.isFor(TimeslotReservation.key("pcserver", "DEFAULT", "Project", 6, "COLLATE", true)));
+        Assert.assertFalse(RESERVATION.isFor(TimeslotReservation.key("pcserver", "DEFAULT", "Project", 5, "DO_NOTHING", true)));
+        Assert.assertFalse(RESERVATION.isFor(TimeslotReservation.key("pcserver", "DEFAULT", "Project", 5, "COLLATE", false)));
+    }
+
+    @Test
+    public void testReservationStepMatchesARunWithTheDefaultDuration() {
+        System.out.println("Testing the key of the reservation step matches a run step with the default timeslot duration");
+        PcTimeslotReservationBuilder reservationStep = new PcTimeslotReservationBuilder("", PcTestBase.PC_SERVER_NAME, false,
+                PcTestBase.AUTHENTICATE_WITH_TOKEN, PcTestBase.CREDENTIALSID, PcTestBase.ALM_DOMAIN, PcTestBase.ALM_PROJECT,
+                PcTestBase.TEST_ID, PostRunAction.COLLATE_AND_ANALYZE, "", "");
+        PcTestRunModel runModel = new MockPcTestRunModel(PcTestBase.SERVER_AND_PORT, PcTestBase.PC_SERVER_NAME,
+                PcTestBase.CREDENTIALSID, PcTestBase.ALM_DOMAIN, PcTestBase.ALM_PROJECT, PcTestBase.TEST_TO_RUN,
+                PcTestBase.TEST_ID, PcTestBase.TEST_CONTENT_TO_CREATE, "AUTO", "", "0", "30",
+                PostRunAction.COLLATE_AND_ANALYZE, PcTestBase.VUDS_MODE, PcTestBase.DESCRIPTION, PcTestBase.IS_HTTPS,
+                PcTestBase.RETRY, PcTestBase.RETRYDELAY, PcTestBase.RETRYOCCURRENCES, PcTestBase.TRENDREPORTWAITTIME,
+                PcTestBase.AUTHENTICATE_WITH_TOKEN, true);
+        int testId = Integer.parseInt(PcTestBase.TEST_ID);
+        TimeslotReservation reservation = new TimeslotReservation(
+                PcTestRunClient.getTimeslotReservationKey(reservationStep.getPcTestRunModel(), testId), testId, 12, 0, 3);
+        Assert.assertTrue(reservation.isFor(PcTestRunClient.getTimeslotReservationKey(runModel, testId)));
+    }
+}